@@ -0,0 +1,312 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import com.google.appinventor.components.annotations.DesignerComponent;
+import com.google.appinventor.components.annotations.DesignerProperty;
+import com.google.appinventor.components.annotations.PropertyCategory;
+import com.google.appinventor.components.annotations.SimpleEvent;
+import com.google.appinventor.components.annotations.SimpleFunction;
+import com.google.appinventor.components.annotations.SimpleObject;
+import com.google.appinventor.components.annotations.SimpleProperty;
+import com.google.appinventor.components.common.ComponentCategory;
+import com.google.appinventor.components.common.PropertyTypeConstants;
+import com.google.appinventor.components.runtime.AndroidNonvisibleComponent;
+import com.google.appinventor.components.runtime.Component;
+import com.google.appinventor.components.runtime.ComponentContainer;
+import com.google.appinventor.components.runtime.EventDispatcher;
+import com.google.appinventor.components.runtime.HorizontalScrollArrangement;
+import com.google.appinventor.components.runtime.OnDestroyListener;
+import com.google.appinventor.components.runtime.OnPauseListener;
+import com.google.appinventor.components.runtime.VerticalScrollArrangement;
+
+import android.util.Log;
+
+/**
+ * Scrolls 2D content: a VerticalScrollArrangement and a HorizontalScrollArrangement nested in each other,
+ * each of them driven by its own ScrollEngine.
+ */
+@DesignerComponent(version = BidirectionalScrollHandler.VERSION,
+    description = "by ColinTree at http://aix.colintree.cn/",
+    category = ComponentCategory.EXTENSION,
+    nonVisible = true,
+    iconName = "aiwebres/iconV.png")
+
+@SimpleObject(external = true)
+
+public class BidirectionalScrollHandler extends AndroidNonvisibleComponent implements Component,
+        OnDestroyListener, OnPauseListener {
+
+    public static final int VERSION = 1;
+
+    private static final String LOG_TAG = "BidirectionalScrollHandler";
+
+    /**
+     * Names of the events raised for each engine, indexed by the bit of ScrollEngine.EVENT_*
+     */
+    private static final String[] VERTICAL_EVENT_NAMES = {
+        "ReachTop", "ReachBottom", "ScrollChanged", null, null, null, null, null, "ScrollStateChanged"
+    };
+    private static final String[] HORIZONTAL_EVENT_NAMES = {
+        "ReachLeftEnd", "ReachRightEnd", "ScrollChanged", null, null, null, null, null, "ScrollStateChanged"
+    };
+
+    private final ScrollEngine vertical;
+    private final ScrollEngine horizontal;
+
+    private int scrollState = ScrollEngine.SCROLL_STATE_IDLE;
+    private String enabledEvents = "*";
+
+    public BidirectionalScrollHandler(ComponentContainer container) {
+        super(container.$form());
+        vertical = new ScrollEngine(ScrollAxis.VERTICAL, container, new ScrollEngine.Events() {
+            @Override
+            void reachStart() {
+                ReachTop();
+            }
+            @Override
+            void reachEnd() {
+                ReachBottom();
+            }
+            @Override
+            void scrollChanged(int scroll) {
+                ScrollChanged(horizontal.scrollPosition(), scroll);
+            }
+            @Override
+            void scrollStateChanged(int state) {
+                updateScrollState();
+            }
+        }, LOG_TAG);
+        horizontal = new ScrollEngine(ScrollAxis.HORIZONTAL, container, new ScrollEngine.Events() {
+            @Override
+            void reachStart() {
+                ReachLeftEnd();
+            }
+            @Override
+            void reachEnd() {
+                ReachRightEnd();
+            }
+            @Override
+            void scrollChanged(int scroll) {
+                ScrollChanged(scroll, vertical.scrollPosition());
+            }
+            @Override
+            void scrollStateChanged(int state) {
+                updateScrollState();
+            }
+        }, LOG_TAG);
+        EnabledEvents(enabledEvents);
+        form.registerForOnDestroy(this);
+        form.registerForOnPause(this);
+        Log.d(LOG_TAG, LOG_TAG + " Created" );
+    }
+
+    /**
+     * Dragging on either axis counts as dragging, otherwise settling on either counts as settling
+     */
+    private void updateScrollState() {
+        int state = combinedScrollState();
+        if (state != scrollState) {
+            scrollState = state;
+            ScrollStateChanged(state);
+        }
+    }
+    private int combinedScrollState() {
+        int verticalState = vertical.scrollState();
+        int horizontalState = horizontal.scrollState();
+        if (verticalState == ScrollEngine.SCROLL_STATE_DRAGGING
+                || horizontalState == ScrollEngine.SCROLL_STATE_DRAGGING) {
+            return ScrollEngine.SCROLL_STATE_DRAGGING;
+        } else if (verticalState == ScrollEngine.SCROLL_STATE_SETTLING
+                || horizontalState == ScrollEngine.SCROLL_STATE_SETTLING) {
+            return ScrollEngine.SCROLL_STATE_SETTLING;
+        }
+        return ScrollEngine.SCROLL_STATE_IDLE;
+    }
+
+    /**
+     * Register the pair of arrangements holding the content, one of them has to be inside the other.
+     * Registering another pair replaces it as the one the functions and properties act on.
+     * The handler takes over the scroll change and touch listeners of both arrangements.
+     */
+    @SimpleFunction
+    public void RegisterScrollViews(VerticalScrollArrangement verticalScrollArrangement,
+            HorizontalScrollArrangement horizontalScrollArrangement) {
+        vertical.register(verticalScrollArrangement);
+        horizontal.register(horizontalScrollArrangement);
+    }
+
+    @SimpleFunction
+    public void UnregisterScrollViews(VerticalScrollArrangement verticalScrollArrangement,
+            HorizontalScrollArrangement horizontalScrollArrangement) {
+        vertical.unregister(verticalScrollArrangement);
+        horizontal.unregister(horizontalScrollArrangement);
+    }
+
+    @Override
+    public void onPause() {
+        vertical.onPause();
+        horizontal.onPause();
+    }
+
+    @Override
+    public void onDestroy() {
+        vertical.onDestroy();
+        horizontal.onDestroy();
+    }
+
+    @SimpleEvent
+    public void ReachTop() {
+        EventDispatcher.dispatchEvent(this, "ReachTop");
+    }
+    @SimpleEvent
+    public void ReachBottom() {
+        EventDispatcher.dispatchEvent(this, "ReachBottom");
+    }
+    @SimpleEvent
+    public void ReachLeftEnd() {
+        EventDispatcher.dispatchEvent(this, "ReachLeftEnd");
+    }
+    @SimpleEvent
+    public void ReachRightEnd() {
+        EventDispatcher.dispatchEvent(this, "ReachRightEnd");
+    }
+    @SimpleEvent
+    public void ScrollChanged(int scrollX, int scrollY) {
+        EventDispatcher.dispatchEvent(this, "ScrollChanged", scrollX, scrollY);
+    }
+    /**
+     * state is 0 when idle on both axes, 1 when dragged by the user, 2 when settling (e.g. after a fling)
+     */
+    @SimpleEvent
+    public void ScrollStateChanged(int state) {
+        EventDispatcher.dispatchEvent(this, "ScrollStateChanged", state);
+    }
+
+    @SimpleProperty(description = "Comma separated names of the events this handler raises, * for all of them. "
+            + "The work needed only by the other events is skipped on every scroll and touch.")
+    public String EnabledEvents() {
+        return enabledEvents;
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_STRING, defaultValue = "*")
+    public void EnabledEvents(String names) {
+        enabledEvents = names;
+        ScrollEngine.checkEventNames(LOG_TAG, names, VERTICAL_EVENT_NAMES, HORIZONTAL_EVENT_NAMES);
+        vertical.setEnabledEvents(ScrollEngine.eventMask(names, VERTICAL_EVENT_NAMES));
+        horizontal.setEnabledEvents(ScrollEngine.eventMask(names, HORIZONTAL_EVENT_NAMES));
+    }
+
+    @SimpleProperty
+    public boolean UserControl() {
+        return vertical.userControl();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "True")
+    public void UserControl(boolean enable) {
+        vertical.setUserControl(enable);
+        horizontal.setUserControl(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, all the scroll changes within one display frame "
+            + "are merged into a single ScrollChanged event per axis carrying the final position.")
+    public boolean CoalesceScrollEvents() {
+        return vertical.coalesceScrollEvents();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void CoalesceScrollEvents(boolean enable) {
+        vertical.setCoalesceScrollEvents(enable);
+        horizontal.setCoalesceScrollEvents(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, while scrolling the children in and next to the viewport "
+            + "are drawn from hardware layers instead of being redrawn on every frame, restored when it goes idle.")
+    public boolean ScrollRenderOptimization() {
+        return vertical.renderOptimization();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void ScrollRenderOptimization(boolean enable) {
+        vertical.setRenderOptimization(enable);
+        horizontal.setRenderOptimization(enable);
+    }
+
+    @SimpleProperty(category = PropertyCategory.APPEARANCE)
+    public boolean ScrollBarEnabled() {
+        return vertical.scrollBarEnabled();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "True")
+    public void ScrollBarEnabled(boolean enabled) {
+        vertical.setScrollBarEnabled(enabled);
+        horizontal.setScrollBarEnabled(enabled);
+    }
+
+    @SimpleProperty(description = "0: IDLE, 1: DRAGGING (moved by the user), 2: SETTLING (still moving "
+            + "after the user released it, e.g. a fling), combined over both axes.")
+    public int ScrollState() {
+        return combinedScrollState();
+    }
+
+    @SimpleProperty(category = PropertyCategory.APPEARANCE)
+    public int ScrollPositionX() {
+        return horizontal.scrollPosition();
+    }
+    @SimpleProperty(category = PropertyCategory.APPEARANCE)
+    public int ScrollPositionY() {
+        return vertical.scrollPosition();
+    }
+    @SimpleProperty(category = PropertyCategory.APPEARANCE)
+    public int MaxScrollPositionX() {
+        return horizontal.maxScrollPosition();
+    }
+    @SimpleProperty(category = PropertyCategory.APPEARANCE)
+    public int MaxScrollPositionY() {
+        return vertical.maxScrollPosition();
+    }
+
+    /**
+     * Scroll to a specific location, in px
+     */
+    @SimpleFunction
+    public void ScrollTo(int x, int y) {
+        horizontal.scrollTo(x);
+        vertical.scrollTo(y);
+    }
+
+    @SimpleFunction
+    public void ScrollBy(int x, int y) {
+        horizontal.scrollBy(x);
+        vertical.scrollBy(y);
+    }
+
+    @SimpleFunction
+    public void SmoothScrollTo(int x, int y) {
+        horizontal.smoothScrollTo(x);
+        vertical.smoothScrollTo(y);
+    }
+
+    @SimpleFunction(description = "Scroll to the position (in px) within durationMs milliseconds, "
+            + "animated natively on every frame. Easing can be:\n"
+            + ScrollEngine.EASING_LINEAR + ": LINEAR\n"
+            + ScrollEngine.EASING_IN + ": EASE IN\n"
+            + ScrollEngine.EASING_OUT + ": EASE OUT\n"
+            + ScrollEngine.EASING_IN_OUT + ": EASE IN OUT\n"
+            + "A touch on the arrangements cancels the animation.")
+    public void AnimateScrollTo(int x, int y, int durationMs, int easing) {
+        horizontal.animateScrollTo(x, durationMs, easing);
+        vertical.animateScrollTo(y, durationMs, easing);
+    }
+
+    @SimpleFunction(description = "Like AnimateScrollTo, relative to the current position")
+    public void AnimateScrollBy(int x, int y, int durationMs, int easing) {
+        horizontal.animateScrollBy(x, durationMs, easing);
+        vertical.animateScrollBy(y, durationMs, easing);
+    }
+
+    @SimpleFunction(description = "Stop the running AnimateScrollTo/AnimateScrollBy")
+    public void CancelAnimation() {
+        horizontal.cancelAnimation();
+        vertical.cancelAnimation();
+    }
+
+}
@@ -0,0 +1,240 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+import android.widget.FrameLayout;
+import android.widget.HorizontalScrollView;
+import android.widget.OverScroller;
+import android.widget.ScrollView;
+
+/**
+ * Everything ScrollEngine reads or writes along the scroll axis.
+ * Only two stateless instances exist, so the engine calls them on every event
+ * without allocating or boxing anything.
+ */
+abstract class ScrollAxis {
+
+    static final ScrollAxis VERTICAL = new ScrollAxis(1) {
+        @Override
+        int scroll(View view) {
+            return view.getScrollY();
+        }
+        @Override
+        void scrollTo(View view, int position) {
+            view.scrollTo(view.getScrollX(), position);
+        }
+        @Override
+        void scrollBy(View view, int delta) {
+            view.scrollBy(0, delta);
+        }
+        @Override
+        void smoothScrollTo(FrameLayout view, int position) {
+            ((ScrollView) view).smoothScrollTo(view.getScrollX(), position);
+        }
+        @Override
+        void smoothScrollBy(FrameLayout view, int delta) {
+            ((ScrollView) view).smoothScrollBy(0, delta);
+        }
+        @Override
+        void fullScroll(FrameLayout view, boolean forward) {
+            ((ScrollView) view).fullScroll(forward ? View.FOCUS_DOWN : View.FOCUS_UP);
+        }
+        @Override
+        void arrowScroll(FrameLayout view, boolean forward) {
+            ((ScrollView) view).arrowScroll(forward ? View.FOCUS_DOWN : View.FOCUS_UP);
+        }
+        @Override
+        void pageScroll(FrameLayout view, boolean forward) {
+            ((ScrollView) view).pageScroll(forward ? View.FOCUS_DOWN : View.FOCUS_UP);
+        }
+        @Override
+        int start(View view) {
+            return view.getTop();
+        }
+        @Override
+        int end(View view) {
+            return view.getBottom();
+        }
+        @Override
+        int size(View view) {
+            return view.getHeight();
+        }
+        @Override
+        int paddingStart(View view) {
+            return view.getPaddingTop();
+        }
+        @Override
+        void setPadding(View view, int[] base, int before, int after) {
+            view.setPadding(base[0], base[1] + before, base[2], base[3] + after);
+        }
+        @Override
+        float pointer(MotionEvent event, int index) {
+            return event.getY(index);
+        }
+        @Override
+        float velocity(VelocityTracker tracker, int pointerId) {
+            return tracker.getYVelocity(pointerId);
+        }
+        @Override
+        void setTranslation(View view, float translation) {
+            view.setTranslationY(translation);
+        }
+        @Override
+        ViewPropertyAnimator animateTranslation(View view, float translation) {
+            return view.animate().translationY(translation);
+        }
+        @Override
+        int fling(OverScroller scroller, int scroll, int velocity, int max) {
+            scroller.fling(0, scroll, 0, velocity, 0, 0, 0, max);
+            return scroller.getFinalY();
+        }
+        @Override
+        int traceScroll(ScrollTrace.Reader reader) {
+            return reader.scrollY;
+        }
+        @Override
+        void setScrollBarEnabled(View view, boolean enabled) {
+            view.setVerticalScrollBarEnabled(enabled);
+        }
+        @Override
+        void setFadingEdgeEnabled(View view, boolean enabled) {
+            view.setVerticalFadingEdgeEnabled(enabled);
+        }
+        @Override
+        boolean fadingEdgeEnabled(View view) {
+            return view.isVerticalFadingEdgeEnabled();
+        }
+    };
+
+    static final ScrollAxis HORIZONTAL = new ScrollAxis(0) {
+        @Override
+        int scroll(View view) {
+            return view.getScrollX();
+        }
+        @Override
+        void scrollTo(View view, int position) {
+            view.scrollTo(position, view.getScrollY());
+        }
+        @Override
+        void scrollBy(View view, int delta) {
+            view.scrollBy(delta, 0);
+        }
+        @Override
+        void smoothScrollTo(FrameLayout view, int position) {
+            ((HorizontalScrollView) view).smoothScrollTo(position, view.getScrollY());
+        }
+        @Override
+        void smoothScrollBy(FrameLayout view, int delta) {
+            ((HorizontalScrollView) view).smoothScrollBy(delta, 0);
+        }
+        @Override
+        void fullScroll(FrameLayout view, boolean forward) {
+            ((HorizontalScrollView) view).fullScroll(forward ? View.FOCUS_RIGHT : View.FOCUS_LEFT);
+        }
+        @Override
+        void arrowScroll(FrameLayout view, boolean forward) {
+            ((HorizontalScrollView) view).arrowScroll(forward ? View.FOCUS_RIGHT : View.FOCUS_LEFT);
+        }
+        @Override
+        void pageScroll(FrameLayout view, boolean forward) {
+            ((HorizontalScrollView) view).pageScroll(forward ? View.FOCUS_RIGHT : View.FOCUS_LEFT);
+        }
+        @Override
+        int start(View view) {
+            return view.getLeft();
+        }
+        @Override
+        int end(View view) {
+            return view.getRight();
+        }
+        @Override
+        int size(View view) {
+            return view.getWidth();
+        }
+        @Override
+        int paddingStart(View view) {
+            return view.getPaddingLeft();
+        }
+        @Override
+        void setPadding(View view, int[] base, int before, int after) {
+            view.setPadding(base[0] + before, base[1], base[2] + after, base[3]);
+        }
+        @Override
+        float pointer(MotionEvent event, int index) {
+            return event.getX(index);
+        }
+        @Override
+        float velocity(VelocityTracker tracker, int pointerId) {
+            return tracker.getXVelocity(pointerId);
+        }
+        @Override
+        void setTranslation(View view, float translation) {
+            view.setTranslationX(translation);
+        }
+        @Override
+        ViewPropertyAnimator animateTranslation(View view, float translation) {
+            return view.animate().translationX(translation);
+        }
+        @Override
+        int fling(OverScroller scroller, int scroll, int velocity, int max) {
+            scroller.fling(scroll, 0, velocity, 0, 0, max, 0, 0);
+            return scroller.getFinalX();
+        }
+        @Override
+        int traceScroll(ScrollTrace.Reader reader) {
+            return reader.scrollX;
+        }
+        @Override
+        void setScrollBarEnabled(View view, boolean enabled) {
+            view.setHorizontalScrollBarEnabled(enabled);
+        }
+        @Override
+        void setFadingEdgeEnabled(View view, boolean enabled) {
+            view.setHorizontalFadingEdgeEnabled(enabled);
+        }
+        @Override
+        boolean fadingEdgeEnabled(View view) {
+            return view.isHorizontalFadingEdgeEnabled();
+        }
+    };
+
+    /**
+     * Index of the padding at the start of the axis in {left, top, right, bottom}
+     */
+    final int paddingIndex;
+
+    private ScrollAxis(int paddingIndex) {
+        this.paddingIndex = paddingIndex;
+    }
+
+    abstract int scroll(View view);
+    abstract void scrollTo(View view, int position);
+    abstract void scrollBy(View view, int delta);
+    abstract void smoothScrollTo(FrameLayout view, int position);
+    abstract void smoothScrollBy(FrameLayout view, int delta);
+    abstract void fullScroll(FrameLayout view, boolean forward);
+    abstract void arrowScroll(FrameLayout view, boolean forward);
+    abstract void pageScroll(FrameLayout view, boolean forward);
+
+    abstract int start(View view);
+    abstract int end(View view);
+    abstract int size(View view);
+    abstract int paddingStart(View view);
+    abstract void setPadding(View view, int[] base, int before, int after);
+
+    abstract float pointer(MotionEvent event, int index);
+    abstract float velocity(VelocityTracker tracker, int pointerId);
+    abstract void setTranslation(View view, float translation);
+    abstract ViewPropertyAnimator animateTranslation(View view, float translation);
+    /**
+     * Start a fling on the scroller and return where it will stop
+     */
+    abstract int fling(OverScroller scroller, int scroll, int velocity, int max);
+    abstract int traceScroll(ScrollTrace.Reader reader);
+
+    abstract void setScrollBarEnabled(View view, boolean enabled);
+    abstract void setFadingEdgeEnabled(View view, boolean enabled);
+    abstract boolean fadingEdgeEnabled(View view);
+}
@@ -0,0 +1,3428 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import com.google.appinventor.components.runtime.AndroidViewComponent;
+import com.google.appinventor.components.runtime.ComponentContainer;
+import com.google.appinventor.components.runtime.util.YailList;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import android.view.Choreographer;
+import android.view.InputDevice;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.ViewConfiguration;
+import android.widget.FrameLayout;
+import android.widget.OverScroller;
+
+/**
+ * The scrolling logic shared by the handlers: listener registration, position and state tracking,
+ * edge detection, overscroll, animations and unit conversion for the arrangements of one axis.
+ * Everything along the axis goes through a ScrollAxis; events are reported to Events,
+ * which the public components turn into App Inventor events.
+ */
+final class ScrollEngine {
+
+    /**
+     * Receives the events of the engine, all of them are ignored unless overridden
+     */
+    abstract static class Events {
+        void reachStart() {
+        }
+        void reachEnd() {
+        }
+        void scrollChanged(int scroll) {
+        }
+        void nearEnd(int remaining) {
+        }
+        void visibleRangeChanged(int first, int last) {
+        }
+        void bindRow(AndroidViewComponent row, int index, Object data) {
+        }
+        void thresholdCrossed(String tag, int direction) {
+        }
+        void layoutChanged(int contentSize, int viewportSize) {
+        }
+        void scrollStateChanged(int state) {
+        }
+        void animationFinished(boolean completed) {
+        }
+        void snappedToChild(int index) {
+        }
+        void flingStarted(float velocity, int predictedPosition) {
+        }
+        void touchDown() {
+        }
+        void touchUp() {
+        }
+        /**
+         * @return true to consume the move
+         */
+        boolean overScrollStart(float displacement) {
+            return false;
+        }
+        boolean overScrollEnd(float displacement) {
+            return false;
+        }
+        void refreshTriggered() {
+        }
+        void replayFinished(int recordedScroll) {
+        }
+    }
+
+    /**
+     * Forwards every event and adds up the time spent in the blocks, so that the scroll metrics
+     * can leave them out of the native work. Events raised by the blocks themselves are counted once.
+     */
+    private static final class TimedEvents extends Events {
+        private final Events target;
+        private long nanos = 0;
+        private int depth = 0;
+
+        TimedEvents(Events target) {
+            this.target = target;
+        }
+
+        private long begin() {
+            return depth++ == 0 ? System.nanoTime() : 0;
+        }
+        private void end(long start) {
+            if (--depth == 0) {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        void reachStart() {
+            long start = begin();
+            try {
+                target.reachStart();
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void reachEnd() {
+            long start = begin();
+            try {
+                target.reachEnd();
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void scrollChanged(int scroll) {
+            long start = begin();
+            try {
+                target.scrollChanged(scroll);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void nearEnd(int remaining) {
+            long start = begin();
+            try {
+                target.nearEnd(remaining);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void visibleRangeChanged(int first, int last) {
+            long start = begin();
+            try {
+                target.visibleRangeChanged(first, last);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void bindRow(AndroidViewComponent row, int index, Object data) {
+            long start = begin();
+            try {
+                target.bindRow(row, index, data);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void thresholdCrossed(String tag, int direction) {
+            long start = begin();
+            try {
+                target.thresholdCrossed(tag, direction);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void layoutChanged(int contentSize, int viewportSize) {
+            long start = begin();
+            try {
+                target.layoutChanged(contentSize, viewportSize);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void scrollStateChanged(int state) {
+            long start = begin();
+            try {
+                target.scrollStateChanged(state);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void animationFinished(boolean completed) {
+            long start = begin();
+            try {
+                target.animationFinished(completed);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void snappedToChild(int index) {
+            long start = begin();
+            try {
+                target.snappedToChild(index);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void flingStarted(float velocity, int predictedPosition) {
+            long start = begin();
+            try {
+                target.flingStarted(velocity, predictedPosition);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void touchDown() {
+            long start = begin();
+            try {
+                target.touchDown();
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void touchUp() {
+            long start = begin();
+            try {
+                target.touchUp();
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        boolean overScrollStart(float displacement) {
+            long start = begin();
+            try {
+                return target.overScrollStart(displacement);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        boolean overScrollEnd(float displacement) {
+            long start = begin();
+            try {
+                return target.overScrollEnd(displacement);
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void refreshTriggered() {
+            long start = begin();
+            try {
+                target.refreshTriggered();
+            } finally {
+                end(start);
+            }
+        }
+        @Override
+        void replayFinished(int recordedScroll) {
+            long start = begin();
+            try {
+                target.replayFinished(recordedScroll);
+            } finally {
+                end(start);
+            }
+        }
+    }
+
+    private final ScrollAxis axis;
+    private final ComponentContainer container;
+    /**
+     * The events of the handler, or timedEvents forwarding to them while the scroll metrics are on
+     */
+    private final Events handlerEvents;
+    private final TimedEvents timedEvents;
+    private Events events;
+    private final String logTag;
+
+    static final int SCROLL_STATE_IDLE = 0;
+    static final int SCROLL_STATE_DRAGGING = 1;
+    static final int SCROLL_STATE_SETTLING = 2;
+    /**
+     * Frames without any scroll change before a settling arrangement is considered idle
+     */
+    private static final int SETTLE_QUIET_FRAMES = 3;
+
+    static final int EASING_LINEAR = 0;
+    static final int EASING_IN = 1;
+    static final int EASING_OUT = 2;
+    static final int EASING_IN_OUT = 3;
+
+    static final int SNAP_NONE = 0;
+    static final int SNAP_CHILD = 1;
+    static final int SNAP_PAGE = 2;
+    private static final int SNAP_MIN_DURATION = 150;
+    private static final int SNAP_MAX_DURATION = 400;
+
+    static final int ALIGN_START = 0;
+    static final int ALIGN_CENTER = 1;
+    static final int ALIGN_END = 2;
+    static final int ALIGN_NEAREST = 3;
+
+    /**
+     * One bit per callback of Events, in the order they are declared
+     */
+    static final int EVENT_REACH_START = 1;
+    static final int EVENT_REACH_END = 1 << 1;
+    static final int EVENT_SCROLL_CHANGED = 1 << 2;
+    static final int EVENT_NEAR_END = 1 << 3;
+    static final int EVENT_VISIBLE_RANGE_CHANGED = 1 << 4;
+    static final int EVENT_BIND_ROW = 1 << 5;
+    static final int EVENT_THRESHOLD_CROSSED = 1 << 6;
+    static final int EVENT_LAYOUT_CHANGED = 1 << 7;
+    static final int EVENT_SCROLL_STATE_CHANGED = 1 << 8;
+    static final int EVENT_ANIMATION_FINISHED = 1 << 9;
+    static final int EVENT_SNAPPED_TO_CHILD = 1 << 10;
+    static final int EVENT_FLING_STARTED = 1 << 11;
+    static final int EVENT_TOUCH_DOWN = 1 << 12;
+    static final int EVENT_TOUCH_UP = 1 << 13;
+    static final int EVENT_OVER_SCROLL_START = 1 << 14;
+    static final int EVENT_OVER_SCROLL_END = 1 << 15;
+    static final int EVENT_REFRESH_TRIGGERED = 1 << 16;
+    static final int EVENT_REPLAY_FINISHED = 1 << 17;
+    static final int ALL_EVENTS = (1 << 18) - 1;
+    /**
+     * The events that need the scroll position on every scroll change
+     */
+    private static final int POSITION_EVENTS = EVENT_REACH_START | EVENT_REACH_END | EVENT_SCROLL_CHANGED
+            | EVENT_NEAR_END | EVENT_VISIBLE_RANGE_CHANGED | EVENT_THRESHOLD_CROSSED;
+    private static final int EDGE_EVENTS = EVENT_REACH_START | EVENT_REACH_END | EVENT_NEAR_END;
+
+    private final ArrayList<ScrollTarget> targets = new ArrayList<ScrollTarget>();
+    /**
+     * The arrangement that functions and properties act on, the latest registered one by default
+     */
+    private ScrollTarget activeTarget = null;
+    /**
+     * The arrangement whose event is being dispatched, takes over activeTarget during the dispatch
+     */
+    private ScrollTarget eventTarget = null;
+
+    /**
+     * The events the app listens to, the work only needed to raise the others is skipped
+     */
+    private int enabledEvents = ALL_EVENTS;
+
+    private boolean coalesceScrollEvents = false;
+    private int minScrollEventInterval = 0;
+    private int minScrollEventDistance = 0;
+    private boolean frameCallbackPosted = false;
+    private final Choreographer.FrameCallback scrollFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            frameCallbackPosted = false;
+            onScrollFrame(frameTimeNanos);
+        }
+    };
+
+    private boolean settleCallbackPosted = false;
+    private final Choreographer.FrameCallback settleFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            settleCallbackPosted = false;
+            boolean settling = false;
+            for (int i = 0; i < targets.size(); i++) {
+                settling |= targets.get(i).onSettleFrame(frameTimeNanos);
+            }
+            if (settling) {
+                postSettleFrame();
+            }
+        }
+    };
+
+    private boolean animationCallbackPosted = false;
+    private final Choreographer.FrameCallback animationFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            animationCallbackPosted = false;
+            boolean running = false;
+            for (int i = 0; i < targets.size(); i++) {
+                running |= targets.get(i).onAnimationFrame(frameTimeNanos);
+            }
+            if (running) {
+                postAnimationFrame();
+            }
+        }
+    };
+
+    /**
+     * Opt-in scroll metrics: frame times while any arrangement is not idle, and the time
+     * spent in the blocks of ScrollChanged
+     */
+    private boolean scrollMetrics = false;
+    private final Histogram frameTimes = new Histogram(100, 1000000L);
+    /**
+     * The frames split by whether the render optimization was applied, to compare before and after
+     */
+    private final Histogram plainFrameTimes = new Histogram(100, 1000000L);
+    private final Histogram optimizedFrameTimes = new Histogram(100, 1000000L);
+    private int plainJankFrames = 0;
+    private int optimizedJankFrames = 0;
+    private final Histogram dispatchTimes = new Histogram(200, 100000L);
+    private final Histogram scrollCallbackTimes = new Histogram(200, 10000L);
+    private final Histogram touchTimes = new Histogram(200, 10000L);
+    private int jankFrames = 0;
+    private long frameIntervalNanos = 0;
+    private long metricsLastFrameNanos = 0;
+    private boolean metricsCallbackPosted = false;
+    private final Choreographer.FrameCallback metricsFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            metricsCallbackPosted = false;
+            onMetricsFrame(frameTimeNanos);
+        }
+    };
+
+    /**
+     * Trace recording and replay of one arrangement, see ScrollTrace.
+     * replayOffset maps the recorded uptime onto the current one, Long.MIN_VALUE until the first touch.
+     */
+    private ScrollTrace.Recorder traceRecorder = null;
+    private ScrollTarget traceTarget = null;
+    private ScrollTrace.Reader replayReader = null;
+    private ScrollTarget replayTarget = null;
+    private long replayOffset = Long.MIN_VALUE;
+    private float replayScale = 1f;
+    private int replayScroll = 0;
+    private boolean replayPointerDown = false;
+    private MotionEvent.PointerProperties[] replayPointers = null;
+    private MotionEvent.PointerCoords[] replayCoords = null;
+    private Handler replayHandler = null;
+    private final Runnable replayRunnable = new Runnable() {
+        @Override
+        public void run() {
+            replayNext();
+        }
+    };
+
+    private int droppedScrollCallbacks = 0;
+    private View.OnScrollChangeListener scrollChangeListener = null;
+    /**
+     * The engine whose scroll change and touch listeners are set on each scroll view.
+     * The platform has no getter for them, and a view registered on several handlers only
+     * keeps the listeners of the last one, which the others must not clear when they let go of it.
+     */
+    private static final WeakHashMap<View, ScrollEngine> listenerOwners = new WeakHashMap<View, ScrollEngine>();
+    /**
+     * Only used below API 23, the global observer reports the scrolling of every view in the window,
+     * so callbacks that leave all of our scroll views unchanged are dropped before any conversion.
+     * A single listener is shared by all registered views, added to the observer of globalListenerOwner.
+     */
+    private ScrollTarget globalListenerOwner = null;
+    private final ViewTreeObserver.OnScrollChangedListener globalScrollListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            boolean changed = false;
+            for (int i = 0; i < targets.size(); i++) {
+                ScrollTarget target = targets.get(i);
+                FrameLayout scrollView = target.scrollView();
+                if (scrollView == null) {
+                    continue;
+                }
+                int rawScroll = axis.scroll(scrollView);
+                if (rawScroll != target.lastRawScroll) {
+                    target.lastRawScroll = rawScroll;
+                    target.onScroll();
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                droppedScrollCallbacks++;
+            }
+        }
+    };
+
+    private boolean densityValid = false;
+    private float layoutDensity = 1f;
+    private final View.OnLayoutChangeListener layoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            ScrollTarget target = findTarget(v);
+            if (target != null) {
+                target.onLayout();
+            }
+        }
+    };
+
+    private int reachRearmDistance = 10;
+    private int nearEndThreshold = 0;
+    private float nearEndThresholdViewports = 0f;
+
+    private int snapMode = SNAP_NONE;
+    private boolean scrollAnchoring = false;
+
+    private boolean elasticOverScroll = false;
+    private boolean pullToRefresh = false;
+    private int refreshDistance = 80;
+    private WeakReference<View> refreshIndicatorRef = null;
+    /**
+     * Set while a link group follows one of its members, so the followers do not lead in turn
+     */
+    private boolean syncingLinks = false;
+
+    private boolean renderOptimization = false;
+    private boolean fadingOffWhileScrolling = false;
+    /**
+     * Number of targets with the render optimization applied
+     */
+    private int optimizedTargets = 0;
+
+    private boolean virtualization = false;
+    private float virtualizationAhead = 2f;
+    private float virtualizationBehind = 1f;
+
+    private boolean userControl = true;
+    private boolean scrollBarEnabled = true;
+    private boolean fadingEdgeEnabled = true;
+    private int overScrollMode = View.OVER_SCROLL_IF_CONTENT_SCROLLS;
+
+    /**
+     * Rubber band resistance of the elastic overscroll, the same curve as the iOS bounce
+     */
+    private static final float ELASTIC_RESISTANCE = 0.55f;
+    private static final int PULL_RELEASE_DURATION = 250;
+    /**
+     * Longest view (in viewports) drawn from a hardware layer by the render optimization
+     */
+    private static final int MAX_LAYER_VIEWPORTS = 2;
+
+    /**
+     * Fixed bucket histogram of durations in ns, recording does not allocate.
+     * The last bucket takes everything beyond the range.
+     */
+    private static final class Histogram {
+        private final int[] buckets;
+        private final long bucketWidth;
+        private int count = 0;
+        private long total = 0;
+        private long max = 0;
+
+        Histogram(int bucketCount, long bucketWidth) {
+            this.buckets = new int[bucketCount + 1];
+            this.bucketWidth = bucketWidth;
+        }
+
+        void record(long value) {
+            buckets[(int) Math.min(Math.max(0, value) / bucketWidth, buckets.length - 1)]++;
+            count++;
+            total += value;
+            if (value > max) {
+                max = value;
+            }
+        }
+        /**
+         * @return upper bound of the bucket holding the percentile, at most the largest value recorded
+         */
+        long percentile(float fraction) {
+            long rank = (long) Math.ceil(count * fraction);
+            int seen = 0;
+            for (int i = 0; i < buckets.length - 1; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(max, (i + 1) * bucketWidth);
+                }
+            }
+            return max;
+        }
+        void reset() {
+            Arrays.fill(buckets, 0);
+            count = 0;
+            total = 0;
+            max = 0;
+        }
+    }
+
+    private static final int BIND_TRANSLATION = 0;
+    private static final int BIND_ALPHA = 1;
+    private static final int BIND_SCALE = 2;
+    private static final int BIND_STICKY = 3;
+
+    /**
+     * A view property driven by the scroll position, applied in the scroll callback itself.
+     * Positions and lengths are kept in dx, so applying needs no conversion.
+     */
+    private static final class ScrollBinding {
+        final WeakReference<View> viewRef;
+        final int property;
+        final float scrollFrom;
+        final float scrollTo;
+        final float valueFrom;
+        final float valueTo;
+        final boolean clamped;
+
+        ScrollBinding(View view, int property, float scrollFrom, float scrollTo,
+                float valueFrom, float valueTo, boolean clamped) {
+            this.viewRef = new WeakReference<View>(view);
+            this.property = property;
+            this.scrollFrom = scrollFrom;
+            this.scrollTo = scrollTo;
+            this.valueFrom = valueFrom;
+            this.valueTo = valueTo;
+            this.clamped = clamped;
+        }
+
+        float value(int scroll) {
+            float fraction;
+            if (scrollTo == scrollFrom) {
+                fraction = scroll >= scrollTo ? 1f : 0f;
+            } else {
+                fraction = (scroll - scrollFrom) / (scrollTo - scrollFrom);
+            }
+            if (clamped) {
+                fraction = Math.max(0f, Math.min(1f, fraction));
+            }
+            return valueFrom + (valueTo - valueFrom) * fraction;
+        }
+    }
+
+    ScrollEngine(ScrollAxis axis, ComponentContainer container, Events events, String logTag) {
+        this.axis = axis;
+        this.container = container;
+        this.handlerEvents = events;
+        this.timedEvents = new TimedEvents(events);
+        this.events = events;
+        this.logTag = logTag;
+    }
+
+    /**
+     * Everything kept for one registered arrangement.
+     * Views are only weakly held, so a handler outliving its screen does not keep the views alive.
+     */
+    private final class ScrollTarget implements View.OnTouchListener, ViewTreeObserver.OnPreDrawListener {
+        private final WeakReference<AndroidViewComponent> arrangementRef;
+        private final WeakReference<FrameLayout> viewRef;
+
+        private int oldScroll = 0;
+        private int pendingScroll = 0;
+        private int scrollDelta = 0;
+        private int lastRawScroll = 0;
+        private long lastDispatchFrameNanos = 0;
+
+        /**
+         * Sorted positions (px) watched by ThresholdCrossed, with the tag of each at the same index
+         */
+        private int[] thresholdPositions = new int[8];
+        private String[] thresholdTags = new String[8];
+        private int thresholdCount = 0;
+
+        private boolean atStart = true;
+        private boolean atEnd = false;
+        private boolean nearEnd = false;
+
+        private boolean layoutMetricsValid = false;
+        private int viewportSize = 0;
+        private int contentSize = 0;
+        private int maxScrollPosition = 0;
+        private int reportedContentSize = -1;
+        private int reportedViewportSize = -1;
+
+        /**
+         * Start and end offset (dx) of every child of the content, rebuilt on layout changes.
+         * Gone children get an empty range, so both arrays stay sorted.
+         */
+        private int[] childStarts = new int[0];
+        private int[] childEnds = new int[0];
+        private int childCount = 0;
+        private int firstVisible = -1;
+        private int lastVisible = -1;
+        private int visibleRangeScroll = 0;
+        /**
+         * Set when the index was rebuilt, the next update searches instead of walking from the old range
+         */
+        private boolean visibleRangeStale = true;
+
+        /**
+         * Virtualization hides the children far outside the viewport, the views hidden by us
+         * are kept at their index with their last laid out size. Their space is kept by
+         * growing the padding of the content, so no spacer view shifts the child indexes.
+         */
+        private View[] virtualHidden = new View[0];
+        private int[] childSizes = new int[0];
+        private int[] basePadding = null;
+        private int virtualFirst = -1;
+        private int virtualLast = -1;
+        private int virtualWindowScroll = 0;
+
+        /**
+         * Recycling list: a pool of row arrangements, the only children of the content,
+         * is rebound to a window of the data. The rows before and after the pool only exist
+         * as padding of the content, sized from the uniform row size and added to its own padding.
+         * The padding is kept apart from the one of virtualization, which restores it on its own.
+         */
+        private AndroidViewComponent[] rowComponents = null;
+        private int[] rowBasePadding = null;
+        private YailList rowData = null;
+        private int rowFirst = 0;
+        private int rowSize = 0;
+
+        private int scrollState = SCROLL_STATE_IDLE;
+        private boolean touching = false;
+        private int quietFrames = 0;
+        private int settleLastScroll = 0;
+        private long settleLastFrameNanos = 0;
+
+        /**
+         * Obtained once and cleared on every touch down, nothing is allocated per move event
+         */
+        private VelocityTracker velocityTracker = null;
+        private OverScroller flingPredictor = null;
+        private int minFlingVelocity = 0;
+        private int maxFlingVelocity = 0;
+        /**
+         * dx per second, positive towards the end
+         */
+        private float velocity = 0;
+
+        private boolean animating = false;
+        private int animationFrom = 0;
+        private int animationTo = 0;
+        private long animationStartNanos = 0;
+        private long animationDurationNanos = 0;
+        private int animationEasing = EASING_LINEAR;
+        private int snapIndex = -1;
+
+        private final ArrayList<ScrollBinding> bindings = new ArrayList<ScrollBinding>();
+
+        /**
+         * Scroll link group, the members scroll together with position / linkRatio kept equal.
+         * linkedScroll is the position last set by the group, so its echo is not passed on again.
+         */
+        private String linkGroup = null;
+        private float linkRatio = 1f;
+        private int linkedScroll = -1;
+
+        /**
+         * Elastic overscroll / pull to refresh: the content is translated by pullOffset (dx)
+         */
+        private boolean pulling = false;
+        private boolean pullAtStart = false;
+        private float pullOffset = 0f;
+        private boolean refreshing = false;
+
+        /**
+         * Render optimization: the views drawn from hardware layers while scrolling
+         * (the children around the viewport when none is chosen), and the state they are restored to when idle
+         */
+        private final ArrayList<WeakReference<View>> layerViews = new ArrayList<WeakReference<View>>();
+        private final ArrayList<View> promotedViews = new ArrayList<View>();
+        private int[] promotedLayerTypes = new int[4];
+        private boolean renderOptimized = false;
+        private boolean fadingSuspended = false;
+        private boolean savedFadingEdge = false;
+        private boolean savedScrollbarFading = true;
+
+        /**
+         * Scroll anchoring: the first visible child and where its start was in the content
+         * at the previous frame, so that layout shifts above the viewport can be compensated
+         */
+        private boolean anchoring = false;
+        private View anchorView = null;
+        private int anchorStart = 0;
+
+        private boolean touchDownDetected = false;
+        private int touchDownScroll = 0;
+        private int touchDownPointerId;
+        private float touchDownPointer;
+        /**
+         * Last position of the tracked pointer, to move touchDownPointer along when another one is tracked
+         */
+        private float touchLastPointer;
+
+        ScrollTarget(AndroidViewComponent arrangement, FrameLayout scrollView) {
+            arrangementRef = new WeakReference<AndroidViewComponent>(arrangement);
+            viewRef = new WeakReference<FrameLayout>(scrollView);
+            lastRawScroll = axis.scroll(scrollView);
+            atStart = lastRawScroll <= 0;
+        }
+
+        AndroidViewComponent arrangement() {
+            return arrangementRef.get();
+        }
+        FrameLayout scrollView() {
+            return viewRef.get();
+        }
+
+        /**
+         * Read viewport and content size once, so that the scroll callbacks only read fields.
+         * Invalidated by every layout pass of the scroll view, which also covers rotation and density changes.
+         */
+        void updateLayoutMetrics() {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                layoutMetricsValid = false;
+                return;
+            }
+            layoutDensity = container.$form().deviceDensity();
+            densityValid = true;
+            View content = scrollView.getChildAt(scrollView.getChildCount() - 1);
+            viewportSize = axis.size(scrollView);
+            contentSize = content == null ? 0 : axis.end(content);
+            maxScrollPosition = Math.round((contentSize - viewportSize) / layoutDensity);
+            indexChildren(content);
+            layoutMetricsValid = true;
+        }
+        private void indexChildren(View content) {
+            if (!(content instanceof ViewGroup)) {
+                childCount = 0;
+                return;
+            }
+            ViewGroup group = (ViewGroup) content;
+            int count = group.getChildCount();
+            if (virtualFirst >= 0 && count != childCount) {
+                // children were added or removed, the hidden ones no longer match their indexes
+                restoreVirtualWindow();
+            }
+            if (childStarts.length < count) {
+                childStarts = new int[count];
+                childEnds = new int[count];
+                childSizes = Arrays.copyOf(childSizes, count);
+                virtualHidden = Arrays.copyOf(virtualHidden, count);
+            }
+            int offset = axis.start(content);
+            int previousEnd = offset + (basePadding != null ? basePadding[axis.paddingIndex] : axis.paddingStart(content));
+            for (int i = 0; i < count; i++) {
+                View child = group.getChildAt(i);
+                if (virtualHidden[i] == child) {
+                    // hidden by virtualization, still takes its cached size
+                    childStarts[i] = previousEnd;
+                    childEnds[i] = previousEnd + childSizes[i];
+                    previousEnd = childEnds[i];
+                } else if (child.getVisibility() == View.GONE) {
+                    // not laid out, its bounds are stale
+                    childStarts[i] = previousEnd;
+                    childEnds[i] = previousEnd;
+                } else {
+                    childStarts[i] = offset + axis.start(child);
+                    childEnds[i] = offset + axis.end(child);
+                    childSizes[i] = childEnds[i] - childStarts[i];
+                    previousEnd = childEnds[i];
+                }
+            }
+            childCount = count;
+        }
+
+        ViewGroup content() {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null || scrollView.getChildCount() == 0) {
+                return null;
+            }
+            View content = scrollView.getChildAt(scrollView.getChildCount() - 1);
+            return content instanceof ViewGroup ? (ViewGroup) content : null;
+        }
+
+        /**
+         * Keep only the children within the window around the viewport laid out.
+         * The window is moved once the viewport has moved by half its size.
+         */
+        void updateVirtualWindow() {
+            FrameLayout scrollView = scrollView();
+            ViewGroup content = content();
+            if (!virtualization || rowComponents != null || scrollView == null || content == null) {
+                return;
+            }
+            ensureLayoutMetrics();
+            if (childCount == 0 || viewportSize <= 0) {
+                return;
+            }
+            int scroll = axis.scroll(scrollView);
+            if (virtualFirst >= 0 && Math.abs(scroll - virtualWindowScroll) < viewportSize / 2) {
+                return;
+            }
+            int first = firstChildEndingAfter(scroll - Math.round(viewportSize * virtualizationBehind));
+            int last = firstChildStartingFrom(scroll + viewportSize + Math.round(viewportSize * virtualizationAhead)) - 1;
+            first = Math.min(first, childCount - 1);
+            last = Math.max(last, first);
+            if (basePadding == null) {
+                basePadding = new int[] {content.getPaddingLeft(), content.getPaddingTop(),
+                        content.getPaddingRight(), content.getPaddingBottom()};
+            }
+            // children outside both the old and the new window are already hidden
+            int from = virtualFirst < 0 ? 0 : Math.min(first, virtualFirst);
+            int to = Math.min(virtualFirst < 0 ? childCount - 1 : Math.max(last, virtualLast),
+                    content.getChildCount() - 1);
+            for (int i = from; i <= to; i++) {
+                View child = content.getChildAt(i);
+                boolean live = i >= first && i <= last;
+                if (live && virtualHidden[i] != null) {
+                    virtualHidden[i] = null;
+                    child.setVisibility(View.VISIBLE);
+                } else if (!live && virtualHidden[i] == null && child.getVisibility() != View.GONE) {
+                    virtualHidden[i] = child;
+                    child.setVisibility(View.GONE);
+                }
+            }
+            int origin = axis.start(content) + basePadding[axis.paddingIndex];
+            int before = Math.max(0, childStarts[first] - origin);
+            int after = Math.max(0, childEnds[childCount - 1] - childEnds[last]);
+            axis.setPadding(content, basePadding, before, after);
+            virtualFirst = first;
+            virtualLast = last;
+            virtualWindowScroll = scroll;
+        }
+        void setRecyclingList(AndroidViewComponent[] rows, YailList data) {
+            ViewGroup content = content();
+            if (content == null) {
+                return;
+            }
+            clearRecyclingList();
+            restoreVirtualWindow();
+            rowBasePadding = new int[] {content.getPaddingLeft(), content.getPaddingTop(),
+                    content.getPaddingRight(), content.getPaddingBottom()};
+            rowComponents = rows;
+            rowData = data;
+            rowFirst = 0;
+            // rows already laid out give the size at once, otherwise it is measured on the next layout
+            rowSize = content.getChildCount() == 0 ? 0 : axis.size(content.getChildAt(0));
+            bindAllRows();
+        }
+        void updateRecyclingData(YailList data) {
+            if (rowComponents == null) {
+                return;
+            }
+            rowData = data;
+            rowFirst = Math.max(0, Math.min(rowFirst, data.size() - rowComponents.length));
+            bindAllRows();
+        }
+        void clearRecyclingList() {
+            if (rowComponents == null) {
+                return;
+            }
+            for (int i = 0; i < rowComponents.length; i++) {
+                rowComponents[i].getView().setVisibility(View.VISIBLE);
+            }
+            ViewGroup content = content();
+            if (content != null && rowBasePadding != null) {
+                content.setPadding(rowBasePadding[0], rowBasePadding[1], rowBasePadding[2], rowBasePadding[3]);
+            }
+            rowBasePadding = null;
+            rowComponents = null;
+            rowData = null;
+        }
+        private AndroidViewComponent rowOf(View view) {
+            for (int i = 0; i < rowComponents.length; i++) {
+                if (rowComponents[i].getView() == view) {
+                    return rowComponents[i];
+                }
+            }
+            return null;
+        }
+        private void bindRow(View view, int index) {
+            AndroidViewComponent row = rowOf(view);
+            if (row == null) {
+                return;
+            }
+            if (index >= rowData.size()) {
+                view.setVisibility(View.GONE);
+                return;
+            }
+            view.setVisibility(View.VISIBLE);
+            if (!raises(EVENT_BIND_ROW)) {
+                return;
+            }
+            ScrollTarget previous = beginEvents(this);
+            try {
+                events.bindRow(row, index + 1, rowData.getObject(index));
+            } finally {
+                endEvents(previous);
+            }
+        }
+        private void bindAllRows() {
+            ViewGroup content = content();
+            if (content == null) {
+                return;
+            }
+            for (int i = 0; i < content.getChildCount(); i++) {
+                bindRow(content.getChildAt(i), rowFirst + i);
+            }
+            applyRowPadding();
+        }
+        private void applyRowPadding() {
+            ViewGroup content = content();
+            if (content == null || rowBasePadding == null) {
+                return;
+            }
+            int before = rowFirst * rowSize;
+            int after = Math.max(0, rowData.size() - rowFirst - rowComponents.length) * rowSize;
+            axis.setPadding(content, rowBasePadding, before, after);
+        }
+        /**
+         * Keep the pool centered around the viewport. Rows leaving one end are moved to the other end
+         * and rebound, the others keep their binding.
+         */
+        void updateRecycledRows() {
+            FrameLayout scrollView = scrollView();
+            ViewGroup content = content();
+            if (rowComponents == null || scrollView == null || content == null) {
+                return;
+            }
+            if (rowSize <= 0) {
+                rowSize = content.getChildCount() == 0 ? 0 : axis.size(content.getChildAt(0));
+                if (rowSize <= 0) {
+                    return;
+                }
+                applyRowPadding();
+            }
+            ensureLayoutMetrics();
+            int pool = content.getChildCount();
+            int perViewport = (viewportSize + rowSize - 1) / rowSize;
+            int first = axis.scroll(scrollView) / rowSize - Math.max(0, pool - perViewport) / 2;
+            first = Math.max(0, Math.min(first, rowData.size() - pool));
+            if (first == rowFirst) {
+                return;
+            }
+            if (Math.abs(first - rowFirst) >= pool) {
+                rowFirst = first;
+                bindAllRows();
+                return;
+            }
+            while (rowFirst < first) {
+                View row = content.getChildAt(0);
+                content.removeViewAt(0);
+                content.addView(row);
+                bindRow(row, rowFirst + pool);
+                rowFirst++;
+            }
+            while (rowFirst > first) {
+                View row = content.getChildAt(pool - 1);
+                content.removeViewAt(pool - 1);
+                content.addView(row, 0);
+                rowFirst--;
+                bindRow(row, rowFirst);
+            }
+            applyRowPadding();
+        }
+
+        void restoreVirtualWindow() {
+            for (int i = 0; i < virtualHidden.length; i++) {
+                if (virtualHidden[i] != null) {
+                    virtualHidden[i].setVisibility(View.VISIBLE);
+                    virtualHidden[i] = null;
+                }
+            }
+            ViewGroup content = content();
+            if (content != null && basePadding != null) {
+                content.setPadding(basePadding[0], basePadding[1], basePadding[2], basePadding[3]);
+            }
+            basePadding = null;
+            virtualFirst = -1;
+            virtualLast = -1;
+        }
+        void ensureLayoutMetrics() {
+            if (!layoutMetricsValid) {
+                updateLayoutMetrics();
+            }
+        }
+        void onLayout() {
+            updateLayoutMetrics();
+            // content appended at the end moves the end away, the edge events can be raised again
+            int remaining = maxScrollPosition - oldScroll;
+            if (atEnd && remaining > reachRearmDistance) {
+                atEnd = false;
+            }
+            if (nearEnd && remaining >= nearEndThreshold() + reachRearmDistance) {
+                nearEnd = false;
+            }
+            if (raises(EVENT_LAYOUT_CHANGED)
+                    && (contentSize != reportedContentSize || viewportSize != reportedViewportSize)) {
+                reportedContentSize = contentSize;
+                reportedViewportSize = viewportSize;
+                ScrollTarget previous = beginEvents(this);
+                try {
+                    events.layoutChanged(dx2px(contentSize), dx2px(viewportSize));
+                } finally {
+                    endEvents(previous);
+                }
+            }
+            // the index was rebuilt, the old range is only kept to be compared with
+            visibleRangeStale = true;
+            checkVisibleRange();
+            updateVirtualWindow();
+            if (rowComponents != null) {
+                ViewGroup content = content();
+                int measured = content == null || content.getChildCount() == 0 ? 0 : axis.size(content.getChildAt(0));
+                if (measured > 0 && measured != rowSize) {
+                    rowSize = measured;
+                    applyRowPadding();
+                }
+            }
+            FrameLayout scrollView = scrollView();
+            if (scrollView != null && !bindings.isEmpty()) {
+                // sticky views depend on where their parents were laid out
+                applyBindings(scrollView);
+            }
+        }
+
+        private void syncLinkGroup(FrameLayout scrollView) {
+            int scroll = axis.scroll(scrollView);
+            if (scroll == linkedScroll) {
+                // set by the group, the others are already there
+                linkedScroll = -1;
+                return;
+            }
+            linkedScroll = -1;
+            if (syncingLinks) {
+                return;
+            }
+            syncingLinks = true;
+            try {
+                float groupPosition = Math.max(0, scroll) / linkRatio;
+                for (int i = 0; i < targets.size(); i++) {
+                    ScrollTarget other = targets.get(i);
+                    if (other != this && linkGroup.equals(other.linkGroup)) {
+                        other.followLinkGroup(groupPosition);
+                    }
+                }
+            } finally {
+                syncingLinks = false;
+            }
+        }
+        void followLinkGroup(float groupPosition) {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                return;
+            }
+            ensureLayoutMetrics();
+            int position = Math.max(0, Math.min(Math.round(groupPosition * linkRatio), contentSize - viewportSize));
+            if (position != axis.scroll(scrollView)) {
+                cancelAnimation(true);
+                linkedScroll = position;
+                axis.scrollTo(scrollView, position);
+            }
+        }
+        /**
+         * The user takes over the whole group, a fling of another member must not fight the touch
+         */
+        private void stopLinkGroup() {
+            for (int i = 0; i < targets.size(); i++) {
+                ScrollTarget other = targets.get(i);
+                FrameLayout otherView = other.scrollView();
+                if (other != this && otherView != null && linkGroup.equals(other.linkGroup)) {
+                    other.cancelAnimation(true);
+                    // an idle follower has no fling to stop, leave its scroller alone
+                    if (other.scrollState != SCROLL_STATE_IDLE) {
+                        abortPlatformScroll(otherView);
+                    }
+                }
+            }
+        }
+
+        void addBinding(View view, int property, float scrollFrom, float scrollTo,
+                float valueFrom, float valueTo, boolean clamped) {
+            removeBinding(view, property);
+            bindings.add(new ScrollBinding(view, property, scrollFrom, scrollTo, valueFrom, valueTo, clamped));
+            FrameLayout scrollView = scrollView();
+            if (scrollView != null) {
+                applyBindings(scrollView);
+            }
+        }
+        /**
+         * Remove the bindings of the view, property -1 for all of them, and put the view back
+         */
+        void removeBinding(View view, int property) {
+            for (int i = bindings.size() - 1; i >= 0; i--) {
+                ScrollBinding binding = bindings.get(i);
+                View bound = binding.viewRef.get();
+                if (bound == null) {
+                    bindings.remove(i);
+                } else if (bound == view && (property < 0 || binding.property == property)) {
+                    bindings.remove(i);
+                    resetBinding(bound, binding.property);
+                }
+            }
+        }
+        void clearBindings() {
+            for (int i = 0; i < bindings.size(); i++) {
+                View view = bindings.get(i).viewRef.get();
+                if (view != null) {
+                    resetBinding(view, bindings.get(i).property);
+                }
+            }
+            bindings.clear();
+        }
+        private void resetBinding(View view, int property) {
+            switch (property) {
+                case BIND_ALPHA:
+                    view.setAlpha(1f);
+                    break;
+                case BIND_SCALE:
+                    view.setScaleX(1f);
+                    view.setScaleY(1f);
+                    break;
+                case BIND_STICKY:
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                        view.setTranslationZ(0f);
+                    }
+                    axis.setTranslation(view, 0f);
+                    break;
+                default:
+                    axis.setTranslation(view, 0f);
+                    break;
+            }
+        }
+        private void applyBindings(FrameLayout scrollView) {
+            int scroll = axis.scroll(scrollView);
+            for (int i = bindings.size() - 1; i >= 0; i--) {
+                ScrollBinding binding = bindings.get(i);
+                View view = binding.viewRef.get();
+                if (view == null) {
+                    bindings.remove(i);
+                    continue;
+                }
+                switch (binding.property) {
+                    case BIND_TRANSLATION:
+                        axis.setTranslation(view, binding.value(scroll));
+                        break;
+                    case BIND_ALPHA:
+                        view.setAlpha(Math.max(0f, Math.min(1f, binding.value(scroll))));
+                        break;
+                    case BIND_SCALE:
+                        float scale = Math.max(0f, binding.value(scroll));
+                        view.setScaleX(scale);
+                        view.setScaleY(scale);
+                        break;
+                    case BIND_STICKY:
+                        axis.setTranslation(view, stickyTranslation(scrollView, view, scroll + binding.valueFrom));
+                        break;
+                }
+            }
+        }
+        /**
+         * Like css position: sticky, the view stays at the pinned position
+         * but never leaves its parent.
+         */
+        private float stickyTranslation(FrameLayout scrollView, View view, float pinned) {
+            ViewParent parent = view.getParent();
+            if (!(parent instanceof View)) {
+                return 0f;
+            }
+            int room = axis.size((View) parent) - axis.end(view);
+            int start = 0;
+            View current = view;
+            while (parent != scrollView) {
+                if (!(parent instanceof View)) {
+                    // not inside this arrangement
+                    return 0f;
+                }
+                start += axis.start(current);
+                current = (View) parent;
+                parent = current.getParent();
+            }
+            start += axis.start(current);
+            return Math.max(0f, Math.min(room, pinned - start));
+        }
+
+        int scrollPosition() {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                return 0;
+            }
+            ensureLayoutMetrics();
+            int position = dx2px(axis.scroll(scrollView));
+            if (position < 0) {
+                return 0;
+            } else if (position > maxScrollPosition) {
+                return maxScrollPosition;
+            }
+            return position;
+        }
+
+        void onScroll() {
+            if (!scrollMetrics) {
+                onScrollChange();
+                return;
+            }
+            // the blocks of every event raised meanwhile are left out, only the native work counts here
+            long dispatched = timedEvents.nanos;
+            long start = System.nanoTime();
+            onScrollChange();
+            scrollCallbackTimes.record(System.nanoTime() - start - (timedEvents.nanos - dispatched));
+        }
+        private void onScrollChange() {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                return;
+            }
+            if (traceTarget == this) {
+                recordScroll(scrollView);
+            }
+            if (!bindings.isEmpty()) {
+                applyBindings(scrollView);
+            }
+            if (linkGroup != null) {
+                syncLinkGroup(scrollView);
+            }
+            if ((enabledEvents & POSITION_EVENTS) == 0) {
+                updateVirtualWindow();
+                updateRecycledRows();
+                onScrollMoved();
+                return;
+            }
+            int scroll = dx2px(axis.scroll(scrollView));
+            if (scroll < 0) {
+                scroll = 0;
+            }
+            updateVirtualWindow();
+            updateRecycledRows();
+            onScrollMoved();
+            if (coalesceScrollEvents) {
+                // merge every change within this frame, dispatched once in onScrollFrame()
+                pendingScroll = scroll;
+                if (!frameCallbackPosted && pendingScroll != oldScroll) {
+                    frameCallbackPosted = true;
+                    Choreographer.getInstance().postFrameCallback(scrollFrameCallback);
+                }
+                return;
+            }
+            if (oldScroll != scroll) {
+                dispatchScrollChanged(scroll);
+            }
+        }
+        /**
+         * @return true if a change is still pending and has to be retried on the next frame
+         */
+        boolean onScrollFrame(long frameTimeNanos) {
+            int scroll = pendingScroll;
+            if (scroll == oldScroll) {
+                return false;
+            }
+            if (minScrollEventInterval > 0 && lastDispatchFrameNanos != 0
+                    && frameTimeNanos - lastDispatchFrameNanos < minScrollEventInterval * 1000000L) {
+                // too early, try again on the next frame with whatever is pending by then
+                return true;
+            }
+            ensureLayoutMetrics();
+            if (minScrollEventDistance > 0 && Math.abs(scroll - oldScroll) < minScrollEventDistance
+                    && scroll != 0 && scroll < maxScrollPosition) {
+                // the edges are always reported so that the reach events are not swallowed
+                return false;
+            }
+            lastDispatchFrameNanos = frameTimeNanos;
+            dispatchScrollChanged(scroll);
+            return false;
+        }
+        /**
+         * Dispatch the change still held back by the coalescing, e.g. within MinScrollEventDistance,
+         * so that the last ScrollChanged reports where the arrangement came to rest
+         */
+        void flushPendingScroll() {
+            if (!coalesceScrollEvents || (enabledEvents & POSITION_EVENTS) == 0 || pendingScroll == oldScroll) {
+                return;
+            }
+            dispatchScrollChanged(pendingScroll);
+        }
+        /**
+         * Start from the current position after it was not followed (before the registration, or while
+         * no position event was enabled), so the first ScrollChanged does not report the whole distance
+         * scrolled meanwhile or cross every threshold on the way
+         */
+        void resyncScroll() {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                return;
+            }
+            oldScroll = Math.max(0, dx2px(axis.scroll(scrollView)));
+            pendingScroll = oldScroll;
+            scrollDelta = 0;
+        }
+        private void dispatchScrollChanged(int scroll) {
+            int old = oldScroll;
+            scrollDelta = scroll - old;
+            oldScroll = scroll;
+            ScrollTarget previous = beginEvents(this);
+            try {
+                raiseScrollChanged(scroll);
+                checkThresholds(old, scroll);
+                checkEdges(scroll);
+                checkVisibleRange();
+            } finally {
+                endEvents(previous);
+            }
+        }
+
+        private void raiseScrollChanged(int scroll) {
+            if (!raises(EVENT_SCROLL_CHANGED)) {
+                return;
+            }
+            if (scrollMetrics) {
+                long start = System.nanoTime();
+                events.scrollChanged(scroll);
+                dispatchTimes.record(System.nanoTime() - start);
+            } else {
+                events.scrollChanged(scroll);
+            }
+        }
+
+        private void checkVisibleRange() {
+            if (!raises(EVENT_VISIBLE_RANGE_CHANGED)) {
+                // kept up to date on demand by the visible index properties
+                return;
+            }
+            int oldFirst = firstVisible;
+            int oldLast = lastVisible;
+            updateVisibleRange();
+            if (firstVisible != oldFirst || lastVisible != oldLast) {
+                ScrollTarget previous = beginEvents(this);
+                try {
+                    events.visibleRangeChanged(firstVisible + 1, lastVisible + 1);
+                } finally {
+                    endEvents(previous);
+                }
+            }
+        }
+        /**
+         * Small scrolls walk from the previous range, jumps and rebuilt indexes use a binary search.
+         */
+        private void updateVisibleRange() {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null || childCount == 0) {
+                firstVisible = -1;
+                lastVisible = -1;
+                return;
+            }
+            ensureLayoutMetrics();
+            int start = axis.scroll(scrollView);
+            int end = start + viewportSize;
+            int first = firstVisible;
+            int last = lastVisible;
+            if (visibleRangeStale || first < 0 || last < 0 || first >= childCount || last >= childCount
+                    || Math.abs(start - visibleRangeScroll) > viewportSize) {
+                first = firstChildEndingAfter(start);
+                last = firstChildStartingFrom(end) - 1;
+            } else {
+                while (first > 0 && childEnds[first - 1] > start) {
+                    first--;
+                }
+                while (first < childCount && childEnds[first] <= start) {
+                    first++;
+                }
+                while (last + 1 < childCount && childStarts[last + 1] < end) {
+                    last++;
+                }
+                while (last >= 0 && childStarts[last] >= end) {
+                    last--;
+                }
+            }
+            if (first >= childCount || last < first) {
+                first = -1;
+                last = -1;
+            }
+            firstVisible = first;
+            lastVisible = last;
+            visibleRangeScroll = start;
+            visibleRangeStale = false;
+        }
+        private int firstChildEndingAfter(int offset) {
+            int low = 0;
+            int high = childCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (childEnds[mid] <= offset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        private int firstChildStartingFrom(int offset) {
+            int low = 0;
+            int high = childCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (childStarts[mid] < offset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void addThreshold(int position, String tag) {
+            if (thresholdCount == thresholdPositions.length) {
+                thresholdPositions = Arrays.copyOf(thresholdPositions, thresholdCount * 2);
+                thresholdTags = Arrays.copyOf(thresholdTags, thresholdCount * 2);
+            }
+            int index = thresholdIndexAfter(position);
+            System.arraycopy(thresholdPositions, index, thresholdPositions, index + 1, thresholdCount - index);
+            System.arraycopy(thresholdTags, index, thresholdTags, index + 1, thresholdCount - index);
+            thresholdPositions[index] = position;
+            thresholdTags[index] = tag;
+            thresholdCount++;
+        }
+        void removeThresholds(String tag) {
+            int kept = 0;
+            for (int i = 0; i < thresholdCount; i++) {
+                if (!thresholdTags[i].equals(tag)) {
+                    thresholdPositions[kept] = thresholdPositions[i];
+                    thresholdTags[kept] = thresholdTags[i];
+                    kept++;
+                }
+            }
+            Arrays.fill(thresholdTags, kept, thresholdCount, null);
+            thresholdCount = kept;
+        }
+        void clearThresholds() {
+            Arrays.fill(thresholdTags, 0, thresholdCount, null);
+            thresholdCount = 0;
+        }
+        /**
+         * @return index of the first threshold greater than position
+         */
+        private int thresholdIndexAfter(int position) {
+            int low = 0;
+            int high = thresholdCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholdPositions[mid] <= position) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        /**
+         * A threshold at p is crossed forward when moving from below p to p or beyond,
+         * and backward when moving from p or beyond to below p.
+         * Only the thresholds between the two positions are visited.
+         */
+        private void checkThresholds(int from, int to) {
+            if (thresholdCount == 0 || !raises(EVENT_THRESHOLD_CROSSED)) {
+                return;
+            }
+            if (to > from) {
+                int end = thresholdIndexAfter(to);
+                for (int i = thresholdIndexAfter(from); i < end && i < thresholdCount; i++) {
+                    events.thresholdCrossed(thresholdTags[i], 1);
+                }
+            } else {
+                int end = thresholdIndexAfter(to);
+                for (int i = thresholdIndexAfter(from) - 1; i >= end && i < thresholdCount; i--) {
+                    events.thresholdCrossed(thresholdTags[i], -1);
+                }
+            }
+        }
+
+        /**
+         * Every edge event is raised once on arrival, and only armed again
+         * after leaving the edge by more than reachRearmDistance, so overscroll jitter
+         * and layout bounces at the ends do not raise it repeatedly.
+         */
+        private void checkEdges(int position) {
+            if ((enabledEvents & EDGE_EVENTS) == 0) {
+                return;
+            }
+            ensureLayoutMetrics();
+            int remaining = maxScrollPosition - position;
+            if (atStart) {
+                if (position > reachRearmDistance) {
+                    atStart = false;
+                }
+            } else if (position <= 0) {
+                atStart = true;
+                if (raises(EVENT_REACH_START)) {
+                    events.reachStart();
+                }
+            }
+            if (atEnd) {
+                if (remaining > reachRearmDistance) {
+                    atEnd = false;
+                }
+            } else if (remaining <= 0 && position > 0) {
+                atEnd = true;
+                if (raises(EVENT_REACH_END)) {
+                    events.reachEnd();
+                }
+            }
+            if (!raises(EVENT_NEAR_END)) {
+                return;
+            }
+            int threshold = nearEndThreshold();
+            if (threshold <= 0) {
+                return;
+            }
+            if (nearEnd) {
+                if (remaining >= threshold + reachRearmDistance) {
+                    nearEnd = false;
+                }
+            } else if (remaining < threshold) {
+                nearEnd = true;
+                events.nearEnd(Math.max(0, remaining));
+            }
+        }
+        private int nearEndThreshold() {
+            if (nearEndThresholdViewports > 0) {
+                ensureLayoutMetrics();
+                return Math.round(nearEndThresholdViewports * dx2px(viewportSize));
+            }
+            return nearEndThreshold;
+        }
+
+        /**
+         * Scrolling while touched is dragging, any other scrolling (fling, animations) is settling
+         */
+        private void onScrollMoved() {
+            quietFrames = 0;
+            if (touching) {
+                setScrollState(SCROLL_STATE_DRAGGING);
+            } else {
+                setScrollState(SCROLL_STATE_SETTLING);
+                postSettleFrame();
+            }
+        }
+        /**
+         * @return true while still settling
+         */
+        boolean onSettleFrame(long frameTimeNanos) {
+            FrameLayout scrollView = scrollView();
+            if (scrollState != SCROLL_STATE_SETTLING || scrollView == null) {
+                return false;
+            }
+            int scroll = axis.scroll(scrollView);
+            if (settleLastFrameNanos != 0 && frameTimeNanos > settleLastFrameNanos) {
+                velocity = (scroll - settleLastScroll) * 1e9f / (frameTimeNanos - settleLastFrameNanos);
+            }
+            settleLastFrameNanos = frameTimeNanos;
+            if (scroll != settleLastScroll) {
+                settleLastScroll = scroll;
+                quietFrames = 0;
+                return true;
+            }
+            if (++quietFrames < SETTLE_QUIET_FRAMES) {
+                return true;
+            }
+            velocity = 0;
+            settleLastFrameNanos = 0;
+            setScrollState(SCROLL_STATE_IDLE);
+            return false;
+        }
+
+        /**
+         * @return velocity in px per second, positive towards the end
+         */
+        float velocity() {
+            if (touching && velocityTracker != null) {
+                velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                velocity = -axis.velocity(velocityTracker, touchDownPointerId);
+            }
+            return dx2px(velocity);
+        }
+        private void obtainVelocityTracker(View view) {
+            if (velocityTracker == null) {
+                velocityTracker = VelocityTracker.obtain();
+                ViewConfiguration configuration = ViewConfiguration.get(view.getContext());
+                minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+                maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+            }
+        }
+        void recycleVelocityTracker() {
+            if (velocityTracker != null) {
+                velocityTracker.recycle();
+                velocityTracker = null;
+            }
+        }
+        /**
+         * Predict where a fling released with the velocity lands, with the same friction the platform scroller uses
+         */
+        private void onRelease(boolean lifted) {
+            FrameLayout scrollView = scrollView();
+            if (velocityTracker == null || scrollView == null) {
+                return;
+            }
+            ensureLayoutMetrics();
+            int max = Math.max(0, contentSize - viewportSize);
+            int scroll = axis.scroll(scrollView);
+            int predicted = scroll;
+            boolean fling = false;
+            if (lifted) {
+                velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                velocity = -axis.velocity(velocityTracker, touchDownPointerId);
+                fling = Math.abs(velocity) >= minFlingVelocity
+                        && !((velocity < 0 && scroll <= 0) || (velocity > 0 && scroll >= max));
+            }
+            if (fling && (raises(EVENT_FLING_STARTED) || snapMode != SNAP_NONE)) {
+                if (flingPredictor == null) {
+                    flingPredictor = new OverScroller(scrollView.getContext());
+                }
+                predicted = axis.fling(flingPredictor, scroll, Math.round(velocity), max);
+                flingPredictor.forceFinished(true);
+                if (raises(EVENT_FLING_STARTED)) {
+                    events.flingStarted(dx2px(velocity), dx2px(predicted));
+                }
+            }
+            if (snapMode != SNAP_NONE && userControl) {
+                snap(scroll, predicted, fling ? velocity : 0, max);
+            }
+        }
+        /**
+         * Pick the child (or page) from the predicted landing position and animate there,
+         * the animation replaces the platform fling.
+         */
+        private void snap(int current, int predicted, float velocity, int max) {
+            int destination;
+            int index;
+            if (snapMode == SNAP_PAGE) {
+                if (viewportSize <= 0) {
+                    return;
+                }
+                int page;
+                if (velocity > 0) {
+                    page = current / viewportSize + 1;
+                } else if (velocity < 0) {
+                    page = (current + viewportSize - 1) / viewportSize - 1;
+                } else {
+                    page = Math.round((float) current / viewportSize);
+                }
+                page = Math.max(0, page);
+                destination = page * viewportSize;
+                index = page;
+            } else {
+                if (childCount == 0) {
+                    return;
+                }
+                index = nearestChild(predicted);
+                if (velocity != 0 && index == nearestChild(current)) {
+                    // a fling always moves by at least one child
+                    index = Math.max(0, Math.min(childCount - 1, index + (velocity > 0 ? 1 : -1)));
+                }
+                destination = childStarts[index];
+            }
+            destination = Math.max(0, Math.min(destination, max));
+            animateTo(destination, scrollDuration(destination - current), EASING_OUT);
+            snapIndex = index;
+        }
+        private int scrollDuration(int distance) {
+            return Math.max(SNAP_MIN_DURATION, Math.min(SNAP_MAX_DURATION, Math.round(Math.abs(dx2px(distance)) * 2)));
+        }
+
+        /**
+         * Scroll so that the child at the index is aligned to the viewport, resolved from the child offset index
+         */
+        void scrollToChild(int index, int alignment, boolean animated) {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                return;
+            }
+            ensureLayoutMetrics();
+            if (index < 0 || index >= childCount) {
+                return;
+            }
+            int current = axis.scroll(scrollView);
+            int start = childStarts[index];
+            int end = childEnds[index];
+            int destination;
+            switch (alignment) {
+                case ALIGN_CENTER:
+                    destination = (start + end - viewportSize) / 2;
+                    break;
+                case ALIGN_END:
+                    destination = end - viewportSize;
+                    break;
+                case ALIGN_NEAREST:
+                    if (start >= current && end <= current + viewportSize) {
+                        // already completely visible
+                        destination = current;
+                    } else if (start < current || end - start > viewportSize) {
+                        destination = start;
+                    } else {
+                        destination = end - viewportSize;
+                    }
+                    break;
+                default:
+                    destination = start;
+            }
+            destination = Math.max(0, Math.min(destination, contentSize - viewportSize));
+            if (animated) {
+                animateTo(destination, scrollDuration(destination - current), EASING_IN_OUT);
+            } else {
+                cancelAnimation(true);
+                axis.scrollTo(scrollView, destination);
+            }
+        }
+        private int nearestChild(int offset) {
+            int index = Math.min(firstChildStartingFrom(offset), childCount - 1);
+            if (index > 0 && offset - childStarts[index - 1] < childStarts[index] - offset) {
+                index--;
+            }
+            return index;
+        }
+        void setScrollState(int state) {
+            if (scrollState == state) {
+                return;
+            }
+            scrollState = state;
+            if (scrollMetrics && state != SCROLL_STATE_IDLE) {
+                postMetricsFrame();
+            }
+            if (state == SCROLL_STATE_IDLE) {
+                flushPendingScroll();
+                stopRenderOptimization();
+            } else if (renderOptimization) {
+                startRenderOptimization();
+            }
+            if (!raises(EVENT_SCROLL_STATE_CHANGED)) {
+                return;
+            }
+            ScrollTarget previous = beginEvents(this);
+            try {
+                events.scrollStateChanged(state);
+            } finally {
+                endEvents(previous);
+            }
+        }
+
+        void startRenderOptimization() {
+            FrameLayout scrollView = scrollView();
+            if (renderOptimized || scrollView == null) {
+                return;
+            }
+            renderOptimized = true;
+            optimizedTargets++;
+            // without hardware acceleration a hardware layer is a software bitmap, slower than none
+            if (scrollView.isHardwareAccelerated()) {
+                ensureLayoutMetrics();
+                // a layer is a texture of the whole view: a long one exceeds the texture size limit
+                // and renders every off-screen part of the view on the first frame
+                int maxSize = viewportSize * MAX_LAYER_VIEWPORTS;
+                if (layerViews.isEmpty()) {
+                    promoteVisibleChildren(maxSize);
+                } else {
+                    for (int i = 0; i < layerViews.size(); i++) {
+                        promote(layerViews.get(i).get(), maxSize);
+                    }
+                }
+            }
+            if (fadingOffWhileScrolling) {
+                fadingSuspended = true;
+                savedFadingEdge = axis.fadingEdgeEnabled(scrollView);
+                savedScrollbarFading = scrollView.isScrollbarFadingEnabled();
+                axis.setFadingEdgeEnabled(scrollView, false);
+                scrollView.setScrollbarFadingEnabled(false);
+            }
+        }
+        /**
+         * The visible children and one more on each side. A child containing a bound view is skipped,
+         * moving the bound view would redraw its layer on every frame.
+         */
+        private void promoteVisibleChildren(int maxSize) {
+            ViewGroup content = content();
+            if (content == null) {
+                return;
+            }
+            updateVisibleRange();
+            if (firstVisible < 0) {
+                return;
+            }
+            int last = Math.min(lastVisible + 1, content.getChildCount() - 1);
+            for (int i = Math.max(0, firstVisible - 1); i <= last; i++) {
+                View child = content.getChildAt(i);
+                if (child.getVisibility() == View.VISIBLE && !containsBoundView(child)) {
+                    promote(child, maxSize);
+                }
+            }
+        }
+        private boolean containsBoundView(View view) {
+            for (int i = 0; i < bindings.size(); i++) {
+                View bound = bindings.get(i).viewRef.get();
+                if (bound == null || bound == view) {
+                    continue;
+                }
+                ViewParent parent = bound.getParent();
+                while (parent instanceof View) {
+                    if (parent == view) {
+                        return true;
+                    }
+                    parent = parent.getParent();
+                }
+            }
+            return false;
+        }
+        private void promote(View view, int maxSize) {
+            if (view == null || axis.size(view) > maxSize || view.getLayerType() == View.LAYER_TYPE_HARDWARE) {
+                return;
+            }
+            if (promotedViews.size() == promotedLayerTypes.length) {
+                promotedLayerTypes = Arrays.copyOf(promotedLayerTypes, promotedLayerTypes.length * 2);
+            }
+            promotedLayerTypes[promotedViews.size()] = view.getLayerType();
+            promotedViews.add(view);
+            view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        }
+        void stopRenderOptimization() {
+            if (!renderOptimized) {
+                return;
+            }
+            renderOptimized = false;
+            optimizedTargets--;
+            for (int i = 0; i < promotedViews.size(); i++) {
+                promotedViews.get(i).setLayerType(promotedLayerTypes[i], null);
+            }
+            promotedViews.clear();
+            FrameLayout scrollView = scrollView();
+            if (fadingSuspended && scrollView != null) {
+                axis.setFadingEdgeEnabled(scrollView, savedFadingEdge);
+                scrollView.setScrollbarFadingEnabled(savedScrollbarFading);
+            }
+            fadingSuspended = false;
+        }
+        void addLayerView(View view) {
+            removeLayerView(view);
+            layerViews.add(new WeakReference<View>(view));
+        }
+        void removeLayerView(View view) {
+            for (int i = layerViews.size() - 1; i >= 0; i--) {
+                View layerView = layerViews.get(i).get();
+                if (layerView == null || layerView == view) {
+                    layerViews.remove(i);
+                }
+            }
+        }
+
+        /**
+         * Animate from the current position to dx, the first frame fixes the start time
+         */
+        void animateTo(int dx, int durationMs, int easing) {
+            FrameLayout scrollView = scrollView();
+            if (scrollView == null) {
+                return;
+            }
+            ensureLayoutMetrics();
+            cancelAnimation(false);
+            animationTo = Math.max(0, Math.min(dx, contentSize - viewportSize));
+            animationDurationNanos = Math.max(0, durationMs) * 1000000L;
+            animationEasing = easing;
+            animationStartNanos = 0;
+            animating = true;
+            postAnimationFrame();
+        }
+        /**
+         * @return true while the animation is still running
+         */
+        boolean onAnimationFrame(long frameTimeNanos) {
+            FrameLayout scrollView = scrollView();
+            if (!animating || scrollView == null) {
+                return false;
+            }
+            if (animationStartNanos == 0) {
+                animationStartNanos = frameTimeNanos;
+                // stop a fling or smooth scroll of the platform, then take over from where it is
+                abortPlatformScroll(scrollView);
+                animationFrom = axis.scroll(scrollView);
+            }
+            long elapsed = frameTimeNanos - animationStartNanos;
+            float fraction = animationDurationNanos <= 0 ? 1f : Math.min(1f, (float) elapsed / animationDurationNanos);
+            int position = animationFrom + Math.round((animationTo - animationFrom) * ease(animationEasing, fraction));
+            axis.scrollTo(scrollView, position);
+            if (fraction < 1f) {
+                return true;
+            }
+            animating = false;
+            int snapped = snapIndex;
+            snapIndex = -1;
+            ScrollTarget previous = beginEvents(this);
+            try {
+                // a snap is not an animation started by the app
+                if (snapped < 0 && raises(EVENT_ANIMATION_FINISHED)) {
+                    events.animationFinished(true);
+                }
+                if (snapped >= 0 && raises(EVENT_SNAPPED_TO_CHILD)) {
+                    events.snappedToChild(snapped + 1);
+                }
+            } finally {
+                endEvents(previous);
+            }
+            return false;
+        }
+        void cancelAnimation(boolean notify) {
+            if (!animating) {
+                return;
+            }
+            animating = false;
+            boolean snapping = snapIndex >= 0;
+            snapIndex = -1;
+            if (notify && !snapping && raises(EVENT_ANIMATION_FINISHED)) {
+                ScrollTarget previous = beginEvents(this);
+                try {
+                    events.animationFinished(false);
+                } finally {
+                    endEvents(previous);
+                }
+            }
+        }
+
+        void setAnchoring(boolean enable) {
+            FrameLayout scrollView = scrollView();
+            if (enable == anchoring || scrollView == null) {
+                return;
+            }
+            anchoring = enable;
+            anchorView = null;
+            ViewTreeObserver observer = scrollView.getViewTreeObserver();
+            if (enable) {
+                observer.addOnPreDrawListener(this);
+            } else if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(this);
+            }
+        }
+        /**
+         * Called after the layout pass and before the frame is drawn: if the anchor child moved,
+         * the content above it changed size, so move the scroll position by the same amount
+         * before anything is drawn.
+         */
+        @Override
+        public boolean onPreDraw() {
+            FrameLayout scrollView = scrollView();
+            ViewGroup content = content();
+            if (!anchoring || scrollView == null || content == null) {
+                return true;
+            }
+            if (anchorView != null && anchorView.getParent() == content && anchorView.getVisibility() != View.GONE) {
+                int shift = axis.start(content) + axis.start(anchorView) - anchorStart;
+                int scroll = axis.scroll(scrollView);
+                if (shift != 0 && scroll > 0) {
+                    if (animating) {
+                        animationFrom += shift;
+                        animationTo += shift;
+                    }
+                    axis.scrollTo(scrollView, scroll + shift);
+                }
+            }
+            recordAnchor(scrollView, content);
+            return true;
+        }
+        private void recordAnchor(FrameLayout scrollView, ViewGroup content) {
+            anchorView = null;
+            int scroll = axis.scroll(scrollView);
+            if (scroll <= 0 || childCount == 0) {
+                // at the start insertions above are shown, like without anchoring
+                return;
+            }
+            int index = firstChildEndingAfter(scroll);
+            if (index >= childCount || index >= content.getChildCount()) {
+                return;
+            }
+            anchorView = content.getChildAt(index);
+            anchorStart = axis.start(content) + axis.start(anchorView);
+        }
+
+        @Override
+        public boolean onTouch(View v, MotionEvent event) {
+            if (traceTarget == this) {
+                recordTouch(event);
+            }
+            if (!scrollMetrics) {
+                return onTouchEvent(v, event);
+            }
+            long start = System.nanoTime();
+            try {
+                return onTouchEvent(v, event);
+            } finally {
+                touchTimes.record(System.nanoTime() - start);
+            }
+        }
+        private boolean onTouchEvent(View v, MotionEvent event) {
+            ScrollTarget previous = beginEvents(this);
+            try {
+                int action = event.getActionMasked();
+                obtainVelocityTracker(v);
+                if (action == MotionEvent.ACTION_DOWN) {
+                    velocityTracker.clear();
+                }
+                velocityTracker.addMovement(event);
+                if (action == MotionEvent.ACTION_DOWN) {
+                    onTouchDown(event);
+                } else if (action == MotionEvent.ACTION_MOVE) {
+                    if (onMove(event)) {
+                        return true;
+                    }
+                } else if (action == MotionEvent.ACTION_POINTER_UP) {
+                    onPointerUp(event);
+                } else if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                    onTouchUp(event);
+                }
+                return !userControl;
+            } finally {
+                endEvents(previous);
+            }
+        }
+        private void onTouchDown(MotionEvent event) {
+            // the user takes over from a running animation
+            cancelAnimation(true);
+            if (linkGroup != null) {
+                stopLinkGroup();
+            }
+            if (raises(EVENT_TOUCH_DOWN)) {
+                events.touchDown();
+            }
+            touchDownDetected = true;
+            touching = true;
+            if (scrollState == SCROLL_STATE_SETTLING) {
+                // the touch catches the fling
+                setScrollState(SCROLL_STATE_DRAGGING);
+            }
+            touchDownScroll = dx2px(axis.scroll(scrollView()));
+            touchDownPointerId = event.getPointerId(0);
+            touchDownPointer = dx2px(axis.pointer(event, 0));
+            touchLastPointer = touchDownPointer;
+        }
+        private void onPointerUp(MotionEvent event) {
+            int index = event.getActionIndex();
+            if (!touchDownDetected || event.getPointerId(index) != touchDownPointerId) {
+                return;
+            }
+            touchLastPointer = dx2px(axis.pointer(event, index));
+            trackPointer(event, index == 0 ? 1 : 0);
+        }
+        /**
+         * Follow another pointer, like the platform does when the tracked one is lifted.
+         * touchDownPointer moves along, so that the distance pulled so far is kept.
+         */
+        private void trackPointer(MotionEvent event, int index) {
+            touchDownPointerId = event.getPointerId(index);
+            float pointer = dx2px(axis.pointer(event, index));
+            touchDownPointer += pointer - touchLastPointer;
+            touchLastPointer = pointer;
+        }
+        private boolean onMove(MotionEvent event) {
+            if (touchDownDetected == true) {
+                if (!elasticOverScroll && !pullToRefresh
+                        && (enabledEvents & (EVENT_OVER_SCROLL_START | EVENT_OVER_SCROLL_END)) == 0) {
+                    return false;
+                }
+                int currentScroll = dx2px(axis.scroll(scrollView()));
+                int index = event.findPointerIndex(touchDownPointerId);
+                if (index < 0) {
+                    // lifted without an ACTION_POINTER_UP reaching us
+                    trackPointer(event, 0);
+                    index = 0;
+                }
+                float currentPointer = dx2px(axis.pointer(event, index));
+                touchLastPointer = currentPointer;
+
+                if (touchDownScroll <= 0 && currentScroll <= 0) {
+                    if (elasticOverScroll || pullToRefresh) {
+                        return onPull(currentPointer - touchDownPointer, true);
+                    }
+                    return raises(EVENT_OVER_SCROLL_START)
+                            && events.overScrollStart(currentPointer - touchDownPointer);
+                }
+                ensureLayoutMetrics();
+                int max = maxScrollPosition;
+                if (touchDownScroll >= max && currentScroll >= max) {
+                    if (elasticOverScroll) {
+                        return onPull(touchDownPointer - currentPointer, false);
+                    }
+                    return raises(EVENT_OVER_SCROLL_END)
+                            && events.overScrollEnd(touchDownPointer - currentPointer);
+                }
+            } else {
+                onTouchDown(event);
+                return onMove(event);
+            }
+            return false;
+        }
+        /**
+         * Pull beyond an edge, handled natively instead of raising the overscroll events on every move.
+         * @param pull distance in px beyond the edge
+         * @return true if the move is consumed
+         */
+        private boolean onPull(float pull, boolean atStart) {
+            float hold = atStart && refreshing ? px2dx(refreshDistance) : 0f;
+            if (pull <= 0) {
+                if (pulling) {
+                    // back within the content, the platform scrolls again
+                    pulling = false;
+                    setPullOffset(hold);
+                }
+                return false;
+            }
+            pulling = true;
+            pullAtStart = atStart;
+            ensureLayoutMetrics();
+            float limit = viewportSize > 0 ? viewportSize : px2dx(refreshDistance) * 4;
+            float damped = limit * (1f - 1f / (pull * deviceDensity() * ELASTIC_RESISTANCE / limit + 1f));
+            setPullOffset(atStart ? hold + damped : -damped);
+            return true;
+        }
+        private void onPullReleased() {
+            pulling = false;
+            float hold = px2dx(refreshDistance);
+            if (pullAtStart && pullToRefresh && !refreshing && pullOffset >= hold) {
+                refreshing = true;
+                animatePullOffset(hold);
+                if (raises(EVENT_REFRESH_TRIGGERED)) {
+                    events.refreshTriggered();
+                }
+            } else {
+                animatePullOffset(pullAtStart && refreshing ? hold : 0f);
+            }
+        }
+        private void setPullOffset(float offset) {
+            ViewGroup content = content();
+            if (content == null) {
+                return;
+            }
+            content.animate().cancel();
+            axis.setTranslation(content, offset);
+            pullOffset = offset;
+            updateRefreshIndicator();
+        }
+        void animatePullOffset(float offset) {
+            ViewGroup content = content();
+            if (content == null) {
+                return;
+            }
+            pullOffset = offset;
+            axis.animateTranslation(content, offset).setDuration(PULL_RELEASE_DURATION)
+                    .withEndAction(new Runnable() {
+                        @Override
+                        public void run() {
+                            updateRefreshIndicator();
+                        }
+                    });
+        }
+        private void updateRefreshIndicator() {
+            View indicator = refreshIndicatorRef == null ? null : refreshIndicatorRef.get();
+            if (indicator == null || !pullToRefresh) {
+                return;
+            }
+            if (refreshing) {
+                indicator.setAlpha(1f);
+                indicator.setVisibility(View.VISIBLE);
+            } else if (pullAtStart && pullOffset > 0) {
+                indicator.setAlpha(Math.min(1f, pullOffset / px2dx(refreshDistance)));
+                indicator.setVisibility(View.VISIBLE);
+            } else {
+                indicator.setVisibility(View.INVISIBLE);
+            }
+        }
+        void resetPull() {
+            pulling = false;
+            refreshing = false;
+            ViewGroup content = content();
+            if (content != null && pullOffset != 0) {
+                content.animate().cancel();
+                axis.setTranslation(content, 0f);
+            }
+            pullOffset = 0f;
+        }
+
+        private void onTouchUp(MotionEvent event) {
+            if (raises(EVENT_TOUCH_UP)) {
+                events.touchUp();
+            }
+            if (pulling) {
+                onPullReleased();
+            } else {
+                onRelease(event.getActionMasked() == MotionEvent.ACTION_UP);
+            }
+            touchDownDetected = false;
+            touching = false;
+            if (scrollState == SCROLL_STATE_DRAGGING) {
+                // released, wait for the fling (if any) to stop
+                quietFrames = 0;
+                setScrollState(SCROLL_STATE_SETTLING);
+                postSettleFrame();
+            }
+        }
+    }
+
+    private ScrollTarget beginEvents(ScrollTarget target) {
+        ScrollTarget previous = eventTarget;
+        eventTarget = target;
+        return previous;
+    }
+    private void endEvents(ScrollTarget previous) {
+        eventTarget = previous;
+    }
+
+    private boolean raises(int event) {
+        return (enabledEvents & event) != 0;
+    }
+
+    /**
+     * The arrangement raising the current event, otherwise the active one
+     */
+    private ScrollTarget currentTarget() {
+        return eventTarget != null ? eventTarget : activeTarget;
+    }
+    private FrameLayout scrollView() {
+        ScrollTarget target = currentTarget();
+        return target == null ? null : target.scrollView();
+    }
+    private ScrollTarget findTarget(View view) {
+        for (int i = 0; i < targets.size(); i++) {
+            ScrollTarget target = targets.get(i);
+            if (target.scrollView() == view) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>
+     * greater than 1 usually, making the px numbers smaller than dx numbers.
+     * which means a px contains to more than one dx
+     * </p>
+     * e.g. If the density is 3, an button in px is 30, and dx will be 90.
+     */
+    float deviceDensity() {
+        if (densityValid) {
+            return layoutDensity;
+        }
+        return container.$form().deviceDensity();
+    }
+    /**
+     * px (appinventor unit) to dx (android unit)
+     */
+    int px2dx(int px) {
+        return Math.round(px * deviceDensity());
+    }
+    /**
+     * dx (android unit) to px (appinventor unit)
+     */
+    int dx2px(int dx) {
+        return Math.round(dx / deviceDensity());
+    }
+    float dx2px(float dx) {
+        return dx / deviceDensity();
+    }
+
+    /**
+     * Register an arrangement, it also becomes the active one.
+     * Registering the same arrangement again only makes it active.
+     */
+    void register(AndroidViewComponent arrangement) {
+        FrameLayout scrollView = (FrameLayout) arrangement.getView();
+        ScrollTarget target = findTarget(scrollView);
+        if (target == null) {
+            target = new ScrollTarget(arrangement, scrollView);
+            targets.add(target);
+            attach(target, scrollView);
+            target.resyncScroll();
+        }
+        activeTarget = target;
+    }
+
+    void unregister(AndroidViewComponent arrangement) {
+        ScrollTarget target = findTarget(arrangement.getView());
+        if (target == null) {
+            return;
+        }
+        targets.remove(target);
+        detach(target);
+        if (activeTarget == target) {
+            activeTarget = targets.isEmpty() ? null : targets.get(targets.size() - 1);
+        }
+    }
+
+    /**
+     * Take over the scroll change and touch listeners of the view, replacing any listener set before
+     */
+    private void attach(ScrollTarget target, FrameLayout scrollView) {
+        listenerOwners.put(scrollView, this);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            // delivered by the scroll view itself, no filtering needed
+            if (scrollChangeListener == null) {
+                scrollChangeListener = new View.OnScrollChangeListener() {
+                    @Override
+                    public void onScrollChange(View v, int scrollX, int scrollY, int oldScrollX, int oldScrollY) {
+                        ScrollTarget target = findTarget(v);
+                        if (target != null) {
+                            target.onScroll();
+                        }
+                    }
+                };
+            }
+            scrollView.setOnScrollChangeListener(scrollChangeListener);
+        } else if (globalListenerOwner == null) {
+            scrollView.getViewTreeObserver().addOnScrollChangedListener(globalScrollListener);
+            globalListenerOwner = target;
+        }
+        scrollView.setOnTouchListener(target);
+        scrollView.addOnLayoutChangeListener(layoutChangeListener);
+        scrollView.setOverScrollMode(overScrollMode);
+        axis.setScrollBarEnabled(scrollView, scrollBarEnabled);
+        axis.setFadingEdgeEnabled(scrollView, fadingEdgeEnabled);
+        target.setAnchoring(scrollAnchoring);
+    }
+
+    /**
+     * Remove every listener from the view of a target that is no longer in the registry,
+     * so that neither the view nor this handler is leaked
+     */
+    private void detach(ScrollTarget target) {
+        if (target == traceTarget) {
+            stopTraceRecording();
+        }
+        if (target == replayTarget) {
+            stopReplay();
+        }
+        target.cancelAnimation(false);
+        target.stopRenderOptimization();
+        target.setAnchoring(false);
+        target.clearBindings();
+        target.resetPull();
+        target.restoreVirtualWindow();
+        target.clearRecyclingList();
+        target.recycleVelocityTracker();
+        FrameLayout scrollView = target.scrollView();
+        if (scrollView != null) {
+            if (listenerOwners.get(scrollView) == this) {
+                // left alone once another handler took the view over
+                listenerOwners.remove(scrollView);
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                    scrollView.setOnScrollChangeListener(null);
+                }
+                scrollView.setOnTouchListener(null);
+            }
+            scrollView.removeOnLayoutChangeListener(layoutChangeListener);
+        }
+        if (target == globalListenerOwner) {
+            globalListenerOwner = null;
+            if (scrollView != null) {
+                ViewTreeObserver observer = scrollView.getViewTreeObserver();
+                if (observer.isAlive()) {
+                    observer.removeOnScrollChangedListener(globalScrollListener);
+                }
+            }
+            // hand the shared listener over to another registered view
+            for (int i = 0; i < targets.size(); i++) {
+                FrameLayout other = targets.get(i).scrollView();
+                if (other != null) {
+                    other.getViewTreeObserver().addOnScrollChangedListener(globalScrollListener);
+                    globalListenerOwner = targets.get(i);
+                    break;
+                }
+            }
+        }
+        if (targets.isEmpty() && frameCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(scrollFrameCallback);
+            frameCallbackPosted = false;
+        }
+        if (targets.isEmpty() && settleCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(settleFrameCallback);
+            settleCallbackPosted = false;
+        }
+        if (targets.isEmpty() && animationCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(animationFrameCallback);
+            animationCallbackPosted = false;
+        }
+    }
+
+    private void postAnimationFrame() {
+        if (!animationCallbackPosted) {
+            animationCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(animationFrameCallback);
+        }
+    }
+
+    private void postMetricsFrame() {
+        if (!metricsCallbackPosted) {
+            metricsCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(metricsFrameCallback);
+        }
+    }
+
+    private void onMetricsFrame(long frameTimeNanos) {
+        if (metricsLastFrameNanos != 0) {
+            long duration = frameTimeNanos - metricsLastFrameNanos;
+            frameTimes.record(duration);
+            boolean optimized = optimizedTargets > 0;
+            (optimized ? optimizedFrameTimes : plainFrameTimes).record(duration);
+            // janky: longer than one and a half refresh intervals, at least one frame was missed
+            if (duration * 2 > frameIntervalNanos() * 3) {
+                jankFrames++;
+                if (optimized) {
+                    optimizedJankFrames++;
+                } else {
+                    plainJankFrames++;
+                }
+            }
+        }
+        boolean scrolling = false;
+        for (int i = 0; i < targets.size(); i++) {
+            scrolling |= targets.get(i).scrollState != SCROLL_STATE_IDLE;
+        }
+        if (scrollMetrics && scrolling) {
+            metricsLastFrameNanos = frameTimeNanos;
+            postMetricsFrame();
+        } else {
+            metricsLastFrameNanos = 0;
+        }
+    }
+
+    private long frameIntervalNanos() {
+        if (frameIntervalNanos == 0) {
+            float refreshRate = container.$form().getWindowManager().getDefaultDisplay().getRefreshRate();
+            frameIntervalNanos = (long) (1000000000L / (refreshRate >= 1f ? refreshRate : 60f));
+        }
+        return frameIntervalNanos;
+    }
+
+    private static YailList metric(String name, Object value) {
+        return YailList.makeList(Arrays.<Object>asList(name, value));
+    }
+    private static float millis(long nanos) {
+        return nanos / 1000000f;
+    }
+
+    private void recordTouch(MotionEvent event) {
+        try {
+            traceRecorder.touch(event);
+        } catch (IOException e) {
+            Log.e(logTag, "Trace recording stopped", e);
+            stopTraceRecording();
+        }
+    }
+    private void recordScroll(FrameLayout scrollView) {
+        try {
+            traceRecorder.scroll(scrollView.getScrollX(), scrollView.getScrollY());
+        } catch (IOException e) {
+            Log.e(logTag, "Trace recording stopped", e);
+            stopTraceRecording();
+        }
+    }
+    void stopTraceRecording() {
+        ScrollTrace.Recorder recorder = traceRecorder;
+        traceRecorder = null;
+        traceTarget = null;
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                Log.e(logTag, "Trace recording not completely written", e);
+            }
+        }
+    }
+
+    /**
+     * Dispatch the current touch record, then wait for the time of the next one.
+     * Scroll records in between only keep the recorded position.
+     */
+    private void replayNext() {
+        ScrollTrace.Reader reader = replayReader;
+        if (reader == null) {
+            return;
+        }
+        FrameLayout scrollView = replayTarget.scrollView();
+        if (scrollView == null) {
+            stopReplay();
+            return;
+        }
+        if (reader.type == ScrollTrace.RECORD_TOUCH) {
+            dispatchReplayedTouch(scrollView, reader, reader.action);
+        }
+        while (reader.next()) {
+            if (reader.type == ScrollTrace.RECORD_SCROLL) {
+                replayScroll = Math.round(axis.traceScroll(reader) / reader.density);
+            } else if (reader.type == ScrollTrace.RECORD_TOUCH) {
+                if (replayOffset == Long.MIN_VALUE) {
+                    replayOffset = SystemClock.uptimeMillis() - reader.time;
+                }
+                replayHandler.postAtTime(replayRunnable, reader.time + replayOffset);
+                return;
+            }
+        }
+        ScrollTarget target = replayTarget;
+        replayReader = null;
+        replayTarget = null;
+        if (raises(EVENT_REPLAY_FINISHED)) {
+            ScrollTarget previous = beginEvents(target);
+            try {
+                events.replayFinished(replayScroll);
+            } finally {
+                endEvents(previous);
+            }
+        }
+    }
+    private void dispatchReplayedTouch(FrameLayout scrollView, ScrollTrace.Reader reader, int action) {
+        int pointerCount = reader.pointerCount;
+        for (int i = 0; i < pointerCount; i++) {
+            replayPointers[i].clear();
+            replayPointers[i].id = reader.pointerIds[i];
+            replayPointers[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            replayCoords[i].clear();
+            replayCoords[i].x = reader.pointerX[i] * replayScale;
+            replayCoords[i].y = reader.pointerY[i] * replayScale;
+        }
+        MotionEvent event = MotionEvent.obtain(reader.downTime + replayOffset, reader.time + replayOffset,
+                action, pointerCount, replayPointers, replayCoords, 0, 0, 1f, 1f, 0, 0,
+                InputDevice.SOURCE_TOUCHSCREEN, 0);
+        int masked = action & 0xff;
+        replayPointerDown = masked != MotionEvent.ACTION_UP && masked != MotionEvent.ACTION_CANCEL;
+        scrollView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+    void stopReplay() {
+        ScrollTrace.Reader reader = replayReader;
+        if (reader == null) {
+            return;
+        }
+        replayHandler.removeCallbacks(replayRunnable);
+        FrameLayout scrollView = replayTarget.scrollView();
+        if (replayPointerDown && scrollView != null) {
+            // do not leave the arrangement in the middle of a drag
+            dispatchReplayedTouch(scrollView, reader, MotionEvent.ACTION_CANCEL);
+        }
+        replayReader = null;
+        replayTarget = null;
+    }
+    private File traceFile(String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(container.$form().getFilesDir(), path);
+    }
+
+    /**
+     * Finish the fling or smooth scroll of the platform scroller where it is now, the way a touch does.
+     * smoothScrollBy(0) would instead start a 250 ms scroll to the current position,
+     * pulling every scrollTo made meanwhile back there.
+     * The events go straight to onTouchEvent, the touch listener of the handler does not see them.
+     */
+    private static void abortPlatformScroll(FrameLayout scrollView) {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, 0f, 0f, 0);
+        scrollView.onTouchEvent(event);
+        event.setAction(MotionEvent.ACTION_CANCEL);
+        scrollView.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private static float ease(int easing, float t) {
+        switch (easing) {
+            case EASING_IN:
+                return t * t;
+            case EASING_OUT:
+                return 1f - (1f - t) * (1f - t);
+            case EASING_IN_OUT:
+                return t < 0.5f ? 2f * t * t : 1f - 2f * (1f - t) * (1f - t);
+            default:
+                return t;
+        }
+    }
+
+    private void postSettleFrame() {
+        if (!settleCallbackPosted) {
+            settleCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(settleFrameCallback);
+        }
+    }
+
+    private void onScrollFrame(long frameTimeNanos) {
+        boolean pending = false;
+        for (int i = 0; i < targets.size(); i++) {
+            pending |= targets.get(i).onScrollFrame(frameTimeNanos);
+        }
+        if (pending && !frameCallbackPosted) {
+            frameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(scrollFrameCallback);
+        }
+    }
+
+    void onPause() {
+        // nothing is dispatched while the screen is in the background
+        if (frameCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(scrollFrameCallback);
+            frameCallbackPosted = false;
+        }
+        if (settleCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(settleFrameCallback);
+            settleCallbackPosted = false;
+        }
+        if (animationCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(animationFrameCallback);
+            animationCallbackPosted = false;
+        }
+        if (metricsCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(metricsFrameCallback);
+            metricsCallbackPosted = false;
+        }
+        // the time in the background is not a frame
+        metricsLastFrameNanos = 0;
+        // the recorded timing cannot be kept while paused
+        stopReplay();
+        for (int i = 0; i < targets.size(); i++) {
+            // the scroll frame callback is gone and nothing posts it again on resume
+            targets.get(i).flushPendingScroll();
+            targets.get(i).cancelAnimation(true);
+            targets.get(i).touching = false;
+            targets.get(i).setScrollState(SCROLL_STATE_IDLE);
+        }
+    }
+
+    void onDestroy() {
+        stopTraceRecording();
+        while (!targets.isEmpty()) {
+            detach(targets.remove(targets.size() - 1));
+        }
+        activeTarget = null;
+    }
+
+
+    AndroidViewComponent activeArrangement() {
+        return activeTarget == null ? null : activeTarget.arrangement();
+    }
+
+    AndroidViewComponent eventSource() {
+        ScrollTarget target = currentTarget();
+        return target == null ? null : target.arrangement();
+    }
+
+    boolean userControl() {
+        return userControl;
+    }
+    void setUserControl(boolean enable) {
+        userControl = enable;
+    }
+
+    boolean coalesceScrollEvents() {
+        return coalesceScrollEvents;
+    }
+    void setCoalesceScrollEvents(boolean enable) {
+        coalesceScrollEvents = enable;
+        if (!enable && frameCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(scrollFrameCallback);
+            frameCallbackPosted = false;
+        }
+    }
+
+    int minScrollEventInterval() {
+        return minScrollEventInterval;
+    }
+    void setMinScrollEventInterval(int milliseconds) {
+        minScrollEventInterval = Math.max(0, milliseconds);
+    }
+
+    int minScrollEventDistance() {
+        return minScrollEventDistance;
+    }
+    void setMinScrollEventDistance(int px) {
+        minScrollEventDistance = Math.max(0, px);
+    }
+
+    int reachRearmDistance() {
+        return reachRearmDistance;
+    }
+    void setReachRearmDistance(int px) {
+        reachRearmDistance = Math.max(0, px);
+    }
+
+    int nearEndThreshold() {
+        return nearEndThreshold;
+    }
+    void setNearEndThreshold(int px) {
+        nearEndThreshold = Math.max(0, px);
+    }
+
+    float nearEndThresholdViewports() {
+        return nearEndThresholdViewports;
+    }
+    void setNearEndThresholdViewports(float viewports) {
+        nearEndThresholdViewports = Math.max(0f, viewports);
+    }
+
+    int snapMode() {
+        return snapMode;
+    }
+    void setSnapMode(int mode) {
+        if (mode != SNAP_CHILD && mode != SNAP_PAGE) {
+            mode = SNAP_NONE;
+        }
+        snapMode = mode;
+    }
+
+    boolean scrollAnchoring() {
+        return scrollAnchoring;
+    }
+    void setScrollAnchoring(boolean enable) {
+        scrollAnchoring = enable;
+        for (int i = 0; i < targets.size(); i++) {
+            targets.get(i).setAnchoring(enable);
+        }
+    }
+
+    boolean elasticOverScroll() {
+        return elasticOverScroll;
+    }
+    void setElasticOverScroll(boolean enable) {
+        elasticOverScroll = enable;
+    }
+
+    boolean pullToRefresh() {
+        return pullToRefresh;
+    }
+    void setPullToRefresh(boolean enable) {
+        pullToRefresh = enable;
+    }
+
+    int refreshDistance() {
+        return refreshDistance;
+    }
+    void setRefreshDistance(int px) {
+        refreshDistance = Math.max(1, px);
+    }
+
+    void setRefreshIndicator(AndroidViewComponent component) {
+        refreshIndicatorRef = component == null ? null : new WeakReference<View>(component.getView());
+        if (component != null) {
+            component.getView().setVisibility(View.INVISIBLE);
+        }
+    }
+
+    boolean refreshing() {
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i).refreshing) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void finishRefresh() {
+        for (int i = 0; i < targets.size(); i++) {
+            ScrollTarget target = targets.get(i);
+            if (target.refreshing) {
+                target.refreshing = false;
+                if (!target.pulling) {
+                    target.animatePullOffset(0f);
+                }
+            }
+        }
+    }
+
+    boolean scrollMetrics() {
+        return scrollMetrics;
+    }
+    void setScrollMetrics(boolean enable) {
+        scrollMetrics = enable;
+        events = enable ? timedEvents : handlerEvents;
+        if (enable) {
+            for (int i = 0; i < targets.size(); i++) {
+                if (targets.get(i).scrollState != SCROLL_STATE_IDLE) {
+                    postMetricsFrame();
+                }
+            }
+        }
+    }
+
+    boolean virtualization() {
+        return virtualization;
+    }
+    void setVirtualization(boolean enable) {
+        virtualization = enable;
+        for (int i = 0; i < targets.size(); i++) {
+            if (enable) {
+                targets.get(i).updateVirtualWindow();
+            } else {
+                targets.get(i).restoreVirtualWindow();
+            }
+        }
+    }
+
+    float virtualizationAhead() {
+        return virtualizationAhead;
+    }
+    void setVirtualizationAhead(float viewports) {
+        virtualizationAhead = Math.max(0f, viewports);
+    }
+
+    float virtualizationBehind() {
+        return virtualizationBehind;
+    }
+    void setVirtualizationBehind(float viewports) {
+        virtualizationBehind = Math.max(0f, viewports);
+    }
+
+    int droppedScrollCallbacks() {
+        return droppedScrollCallbacks;
+    }
+
+    int scrollDelta() {
+        ScrollTarget target = currentTarget();
+        return target == null ? 0 : target.scrollDelta;
+    }
+
+    /**
+     * Applies to all the registered arrangements
+     */
+    boolean scrollBarEnabled() {
+        return scrollBarEnabled;
+    }
+    void setScrollBarEnabled(boolean enabled) {
+        scrollBarEnabled = enabled;
+        for (int i = 0; i < targets.size(); i++) {
+            FrameLayout scrollView = targets.get(i).scrollView();
+            if (scrollView != null) {
+                axis.setScrollBarEnabled(scrollView, enabled);
+            }
+        }
+    }
+    void setScrollBarEnabled(AndroidViewComponent arrangement, boolean enabled) {
+        axis.setScrollBarEnabled(arrangement.getView(), enabled);
+    }
+
+    boolean fadingEdgeEnabled() {
+        return fadingEdgeEnabled;
+    }
+    void setFadingEdgeEnabled(boolean enabled) {
+        fadingEdgeEnabled = enabled;
+        for (int i = 0; i < targets.size(); i++) {
+            FrameLayout scrollView = targets.get(i).scrollView();
+            if (scrollView != null) {
+                axis.setFadingEdgeEnabled(scrollView, enabled);
+            }
+        }
+    }
+    void setFadingEdgeEnabled(AndroidViewComponent arrangement, boolean enabled) {
+        axis.setFadingEdgeEnabled(arrangement.getView(), enabled);
+    }
+
+    int overScrollMode() {
+        return overScrollMode;
+    }
+    void setOverScrollMode(int mode) {
+        overScrollMode = validOverScrollMode(mode);
+        for (int i = 0; i < targets.size(); i++) {
+            FrameLayout scrollView = targets.get(i).scrollView();
+            if (scrollView != null) {
+                scrollView.setOverScrollMode(overScrollMode);
+            }
+        }
+    }
+    void setOverScrollMode(AndroidViewComponent arrangement, int mode) {
+        arrangement.getView().setOverScrollMode(validOverScrollMode(mode));
+    }
+    private static int validOverScrollMode(int mode) {
+        if (mode != View.OVER_SCROLL_ALWAYS && mode != View.OVER_SCROLL_IF_CONTENT_SCROLLS &&
+                mode != View.OVER_SCROLL_NEVER) {
+            return View.OVER_SCROLL_IF_CONTENT_SCROLLS;
+        }
+        return mode;
+    }
+
+    int scrollState() {
+        ScrollTarget target = currentTarget();
+        return target == null ? SCROLL_STATE_IDLE : target.scrollState;
+    }
+
+    float scrollVelocity() {
+        ScrollTarget target = currentTarget();
+        return target == null ? 0 : target.velocity();
+    }
+
+    int scrollPosition() {
+        ScrollTarget target = currentTarget();
+        return target == null ? 0 : target.scrollPosition();
+    }
+
+    int maxScrollPosition() {
+        ScrollTarget target = currentTarget();
+        if (target == null) {
+            return 0;
+        }
+        target.ensureLayoutMetrics();
+        return target.maxScrollPosition;
+    }
+
+    int firstVisibleIndex() {
+        ScrollTarget target = visibleRangeTarget();
+        return target == null ? 0 : target.firstVisible + 1;
+    }
+
+    int lastVisibleIndex() {
+        ScrollTarget target = visibleRangeTarget();
+        return target == null ? 0 : target.lastVisible + 1;
+    }
+
+    boolean isChildVisible(int index) {
+        ScrollTarget target = visibleRangeTarget();
+        return target != null && target.firstVisible >= 0
+                && index - 1 >= target.firstVisible && index - 1 <= target.lastVisible;
+    }
+
+    /**
+     * The current target with its visible range brought up to date,
+     * it is not followed on every scroll change while VisibleRangeChanged is disabled
+     */
+    private ScrollTarget visibleRangeTarget() {
+        ScrollTarget target = currentTarget();
+        if (target != null && !raises(EVENT_VISIBLE_RANGE_CHANGED)) {
+            target.updateVisibleRange();
+        }
+        return target;
+    }
+
+    /**
+     * @param names comma separated event names, "*" for all of them
+     * @param eventNames the name of the event for each EVENT_* bit, null for the ones not raised
+     */
+    static int eventMask(String names, String[] eventNames) {
+        int mask = 0;
+        for (String name : names.split(",")) {
+            name = name.trim();
+            for (int i = 0; i < eventNames.length; i++) {
+                if (eventNames[i] != null && (name.equals("*") || name.equals(eventNames[i]))) {
+                    mask |= 1 << i;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Log the names matching no event of any of the lists, a typo would otherwise quietly disable the event
+     *
+     * @param names comma separated event names, "*" for all of them
+     * @param eventNames the names of each engine the property applies to, as given to eventMask
+     */
+    static void checkEventNames(String logTag, String names, String[]... eventNames) {
+        for (String name : names.split(",")) {
+            name = name.trim();
+            if (name.isEmpty() || name.equals("*") || isEventName(name, eventNames)) {
+                continue;
+            }
+            Log.w(logTag, "EnabledEvents: unknown event " + name);
+        }
+    }
+
+    private static boolean isEventName(String name, String[][] eventNames) {
+        for (String[] names : eventNames) {
+            for (String eventName : names) {
+                if (name.equals(eventName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    int enabledEvents() {
+        return enabledEvents;
+    }
+    void setEnabledEvents(int mask) {
+        boolean positionFollowed = (enabledEvents & POSITION_EVENTS) != 0;
+        enabledEvents = mask & ALL_EVENTS;
+        if (!positionFollowed && (enabledEvents & POSITION_EVENTS) != 0) {
+            for (int i = 0; i < targets.size(); i++) {
+                targets.get(i).resyncScroll();
+            }
+        }
+    }
+
+    void setRecyclingList(YailList rows, YailList data) {
+        ScrollTarget target = currentTarget();
+        ViewGroup content = target == null ? null : target.content();
+        if (content == null) {
+            return;
+        }
+        AndroidViewComponent[] rowComponents = new AndroidViewComponent[rows.size()];
+        for (int i = 0; i < rowComponents.length; i++) {
+            Object row = rows.getObject(i);
+            if (!(row instanceof AndroidViewComponent)
+                    || ((AndroidViewComponent) row).getView().getParent() != content) {
+                Log.w(logTag, "SetRecyclingList: row " + (i + 1) + " is not a child of the arrangement");
+                return;
+            }
+            rowComponents[i] = (AndroidViewComponent) row;
+        }
+        target.setRecyclingList(rowComponents, data);
+    }
+
+    void updateRecyclingData(YailList data) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.updateRecyclingData(data);
+        }
+    }
+
+    void clearRecyclingList() {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.clearRecyclingList();
+        }
+    }
+
+    void addThreshold(int position, String tag) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.addThreshold(position, tag);
+        }
+    }
+
+    void removeThreshold(String tag) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.removeThresholds(tag);
+        }
+    }
+
+    void clearThresholds() {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.clearThresholds();
+        }
+    }
+
+    void bindTranslation(AndroidViewComponent component, int scrollFrom, int scrollTo,
+            int offsetFrom, int offsetTo, boolean clamped) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.addBinding(component.getView(), BIND_TRANSLATION, px2dx(scrollFrom), px2dx(scrollTo),
+                    px2dx(offsetFrom), px2dx(offsetTo), clamped);
+        }
+    }
+
+    void bindAlpha(AndroidViewComponent component, int scrollFrom, int scrollTo,
+            float alphaFrom, float alphaTo, boolean clamped) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.addBinding(component.getView(), BIND_ALPHA, px2dx(scrollFrom), px2dx(scrollTo),
+                    alphaFrom, alphaTo, clamped);
+        }
+    }
+
+    void bindScale(AndroidViewComponent component, int scrollFrom, int scrollTo,
+            float scaleFrom, float scaleTo, boolean clamped) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.addBinding(component.getView(), BIND_SCALE, px2dx(scrollFrom), px2dx(scrollTo),
+                    scaleFrom, scaleTo, clamped);
+        }
+    }
+
+    void bindSticky(AndroidViewComponent component, int offset) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            View view = component.getView();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                // drawn above the siblings that follow it
+                view.setTranslationZ(1f);
+            }
+            target.addBinding(view, BIND_STICKY, 0, 0, px2dx(offset), 0, true);
+        }
+    }
+
+    void unbind(AndroidViewComponent component) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.removeBinding(component.getView(), -1);
+        }
+    }
+
+    void clearBindings() {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.clearBindings();
+        }
+    }
+
+    boolean renderOptimization() {
+        return renderOptimization;
+    }
+    void setRenderOptimization(boolean enable) {
+        renderOptimization = enable;
+        for (int i = 0; i < targets.size(); i++) {
+            ScrollTarget target = targets.get(i);
+            if (!enable) {
+                target.stopRenderOptimization();
+            } else if (target.scrollState != SCROLL_STATE_IDLE) {
+                target.startRenderOptimization();
+            }
+        }
+    }
+
+    boolean fadingOffWhileScrolling() {
+        return fadingOffWhileScrolling;
+    }
+    void setFadingOffWhileScrolling(boolean enable) {
+        fadingOffWhileScrolling = enable;
+    }
+
+    void addScrollLayer(AndroidViewComponent component) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.addLayerView(component.getView());
+        }
+    }
+
+    void removeScrollLayer(AndroidViewComponent component) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.removeLayerView(component.getView());
+        }
+    }
+
+    void clearScrollLayers() {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.layerViews.clear();
+        }
+    }
+
+    void linkScroll(AndroidViewComponent arrangement, String group, float ratio) {
+        ScrollTarget target = findTarget(arrangement.getView());
+        if (target == null || group == null || group.length() == 0 || ratio <= 0) {
+            return;
+        }
+        target.linkGroup = group;
+        target.linkRatio = ratio;
+        target.linkedScroll = -1;
+        // join at the position of the group
+        for (int i = 0; i < targets.size(); i++) {
+            ScrollTarget other = targets.get(i);
+            FrameLayout otherView = other.scrollView();
+            if (other != target && otherView != null && group.equals(other.linkGroup)) {
+                target.followLinkGroup(Math.max(0, axis.scroll(otherView)) / other.linkRatio);
+                break;
+            }
+        }
+    }
+
+    void unlinkScroll(AndroidViewComponent arrangement) {
+        ScrollTarget target = findTarget(arrangement.getView());
+        if (target != null) {
+            target.linkGroup = null;
+            target.linkedScroll = -1;
+        }
+    }
+
+    YailList scrollMetricsList() {
+        ArrayList<Object> metrics = new ArrayList<Object>();
+        metrics.add(metric("Frames", frameTimes.count));
+        metrics.add(metric("JankFrames", jankFrames));
+        metrics.add(metric("FrameTimeP50", millis(frameTimes.percentile(0.5f))));
+        metrics.add(metric("FrameTimeP90", millis(frameTimes.percentile(0.9f))));
+        metrics.add(metric("FrameTimeP99", millis(frameTimes.percentile(0.99f))));
+        metrics.add(metric("FrameTimeMax", millis(frameTimes.max)));
+        metrics.add(metric("ScrollEvents", dispatchTimes.count));
+        metrics.add(metric("ScrollEventsPerSecond",
+                frameTimes.total == 0 ? 0f : dispatchTimes.count * 1000000000f / frameTimes.total));
+        metrics.add(metric("DispatchTimeP50", millis(dispatchTimes.percentile(0.5f))));
+        metrics.add(metric("DispatchTimeP90", millis(dispatchTimes.percentile(0.9f))));
+        metrics.add(metric("DispatchTimeP99", millis(dispatchTimes.percentile(0.99f))));
+        metrics.add(metric("DispatchTimeMax", millis(dispatchTimes.max)));
+        metrics.add(metric("ScrollCallbackTimeP50", millis(scrollCallbackTimes.percentile(0.5f))));
+        metrics.add(metric("ScrollCallbackTimeP99", millis(scrollCallbackTimes.percentile(0.99f))));
+        metrics.add(metric("ScrollCallbackTimeMax", millis(scrollCallbackTimes.max)));
+        metrics.add(metric("TouchTimeP50", millis(touchTimes.percentile(0.5f))));
+        metrics.add(metric("TouchTimeP99", millis(touchTimes.percentile(0.99f))));
+        metrics.add(metric("TouchTimeMax", millis(touchTimes.max)));
+        metrics.add(metric("UnoptimizedFrames", plainFrameTimes.count));
+        metrics.add(metric("UnoptimizedJankFrames", plainJankFrames));
+        metrics.add(metric("UnoptimizedFrameTimeP50", millis(plainFrameTimes.percentile(0.5f))));
+        metrics.add(metric("UnoptimizedFrameTimeP90", millis(plainFrameTimes.percentile(0.9f))));
+        metrics.add(metric("UnoptimizedFrameTimeP99", millis(plainFrameTimes.percentile(0.99f))));
+        metrics.add(metric("OptimizedFrames", optimizedFrameTimes.count));
+        metrics.add(metric("OptimizedJankFrames", optimizedJankFrames));
+        metrics.add(metric("OptimizedFrameTimeP50", millis(optimizedFrameTimes.percentile(0.5f))));
+        metrics.add(metric("OptimizedFrameTimeP90", millis(optimizedFrameTimes.percentile(0.9f))));
+        metrics.add(metric("OptimizedFrameTimeP99", millis(optimizedFrameTimes.percentile(0.99f))));
+        metrics.add(metric("DroppedScrollCallbacks", droppedScrollCallbacks));
+        return YailList.makeList(metrics);
+    }
+
+    void resetScrollMetrics() {
+        frameTimes.reset();
+        plainFrameTimes.reset();
+        optimizedFrameTimes.reset();
+        plainJankFrames = 0;
+        optimizedJankFrames = 0;
+        dispatchTimes.reset();
+        scrollCallbackTimes.reset();
+        touchTimes.reset();
+        jankFrames = 0;
+    }
+
+    void startTraceRecording(String path) {
+        ScrollTarget target = currentTarget();
+        stopTraceRecording();
+        if (target == null) {
+            return;
+        }
+        try {
+            traceRecorder = new ScrollTrace.Recorder(traceFile(path), deviceDensity());
+            traceTarget = target;
+        } catch (IOException e) {
+            Log.e(logTag, "StartTraceRecording: cannot write " + path, e);
+        }
+    }
+
+    void replayTrace(String path) {
+        ScrollTarget target = currentTarget();
+        stopReplay();
+        if (target == null) {
+            return;
+        }
+        try {
+            replayReader = new ScrollTrace.Reader(traceFile(path));
+        } catch (IOException e) {
+            Log.e(logTag, "ReplayTrace: cannot read " + path, e);
+            return;
+        }
+        if (replayHandler == null) {
+            replayHandler = new Handler(Looper.getMainLooper());
+            replayPointers = new MotionEvent.PointerProperties[ScrollTrace.MAX_POINTERS];
+            replayCoords = new MotionEvent.PointerCoords[ScrollTrace.MAX_POINTERS];
+            for (int i = 0; i < ScrollTrace.MAX_POINTERS; i++) {
+                replayPointers[i] = new MotionEvent.PointerProperties();
+                replayCoords[i] = new MotionEvent.PointerCoords();
+            }
+        }
+        replayTarget = target;
+        replayOffset = Long.MIN_VALUE;
+        // coordinates are in dx, scaled for a device with another density
+        replayScale = deviceDensity() / replayReader.density;
+        replayScroll = 0;
+        replayPointerDown = false;
+        replayNext();
+    }
+
+    /**
+     * Go to the start or the end
+     */
+    void fullScroll(boolean forward) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.fullScroll(scrollView, forward);
+        }
+    }
+
+    /**
+     * Scroll for half screen
+     */
+    void arrowScroll(boolean forward) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.arrowScroll(scrollView, forward);
+        }
+    }
+
+    /**
+     * Scroll for one page
+     */
+    void pageScroll(boolean forward) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.pageScroll(scrollView, forward);
+        }
+    }
+
+    void scrollTo(int px) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.scrollTo(scrollView, px2dx(px));
+        }
+    }
+
+    void scrollBy(int px) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.scrollBy(scrollView, px2dx(px));
+        }
+    }
+
+    void smoothScrollTo(int px) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.smoothScrollTo(scrollView, px2dx(px));
+        }
+    }
+
+    void smoothScrollBy(int px) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            axis.smoothScrollBy(scrollView, px2dx(px));
+        }
+    }
+
+    void animateScrollTo(int px, int durationMs, int easing) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.animateTo(px2dx(px), durationMs, easing);
+        }
+    }
+
+    void animateScrollBy(int px, int durationMs, int easing) {
+        FrameLayout scrollView = scrollView();
+        if (scrollView != null) {
+            currentTarget().animateTo(axis.scroll(scrollView) + px2dx(px), durationMs, easing);
+        }
+    }
+
+    void cancelAnimation() {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.cancelAnimation(true);
+        }
+    }
+
+    void scrollToComponent(AndroidViewComponent component, int alignment, boolean animated) {
+        ScrollTarget target = currentTarget();
+        ViewGroup content = target == null ? null : target.content();
+        if (content == null) {
+            return;
+        }
+        int index = content.indexOfChild(component.getView());
+        if (index < 0) {
+            Log.w(logTag, "ScrollToComponent: the component is not a child of the arrangement");
+            return;
+        }
+        target.scrollToChild(index, alignment, animated);
+    }
+
+    void scrollToIndex(int index, int alignment, boolean animated) {
+        ScrollTarget target = currentTarget();
+        if (target != null) {
+            target.scrollToChild(index - 1, alignment, animated);
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+/**
+ * Compact binary trace of the touch and scroll stream of one arrangement, for replaying a real gesture.
+ *
+ * Layout (big endian): header {int magic, byte version, float density},
+ * then records, each starting with its type byte:
+ *   touch  {long eventTime, long downTime, int action, byte pointerCount, pointerCount * {byte id, float x, float y}}
+ *   scroll {long time, int scrollX, int scrollY}
+ * Times are SystemClock.uptimeMillis(), coordinates and scroll positions are in dx.
+ */
+final class ScrollTrace {
+
+    static final byte RECORD_TOUCH = 1;
+    static final byte RECORD_SCROLL = 2;
+    static final int MAX_POINTERS = 10;
+
+    private static final int MAGIC = 0x53435452; // "SCTR"
+    private static final byte VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_SIZE = 1 + 8 + 8 + 4 + 1 + MAX_POINTERS * 9;
+
+    private ScrollTrace() {
+    }
+
+    /**
+     * Buffered writer, records are only copied into a direct buffer and written out when it is nearly full
+     */
+    static final class Recorder {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Recorder(File file, float density) throws IOException {
+            channel = new FileOutputStream(file).getChannel();
+            buffer.putInt(MAGIC);
+            buffer.put(VERSION);
+            buffer.putFloat(density);
+        }
+
+        void touch(MotionEvent event) throws IOException {
+            ensureRoom();
+            int pointerCount = Math.min(event.getPointerCount(), MAX_POINTERS);
+            buffer.put(RECORD_TOUCH);
+            buffer.putLong(event.getEventTime());
+            buffer.putLong(event.getDownTime());
+            buffer.putInt(event.getAction());
+            buffer.put((byte) pointerCount);
+            for (int i = 0; i < pointerCount; i++) {
+                buffer.put((byte) event.getPointerId(i));
+                buffer.putFloat(event.getX(i));
+                buffer.putFloat(event.getY(i));
+            }
+        }
+
+        void scroll(int scrollX, int scrollY) throws IOException {
+            ensureRoom();
+            buffer.put(RECORD_SCROLL);
+            buffer.putLong(SystemClock.uptimeMillis());
+            buffer.putInt(scrollX);
+            buffer.putInt(scrollY);
+        }
+
+        void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void ensureRoom() throws IOException {
+            if (buffer.remaining() < MAX_RECORD_SIZE) {
+                flush();
+            }
+        }
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Reads a whole trace into memory, next() moves to the following record and fills the fields
+     */
+    static final class Reader {
+        private final ByteBuffer data;
+        final float density;
+
+        byte type;
+        long time;
+        long downTime;
+        int action;
+        int pointerCount;
+        final int[] pointerIds = new int[MAX_POINTERS];
+        final float[] pointerX = new float[MAX_POINTERS];
+        final float[] pointerY = new float[MAX_POINTERS];
+        int scrollX;
+        int scrollY;
+
+        Reader(File file) throws IOException {
+            FileChannel channel = new FileInputStream(file).getChannel();
+            try {
+                data = ByteBuffer.allocate((int) channel.size());
+                while (data.hasRemaining()) {
+                    if (channel.read(data) < 0) {
+                        break;
+                    }
+                }
+                data.flip();
+            } finally {
+                channel.close();
+            }
+            if (data.remaining() < 9 || data.getInt() != MAGIC || data.get() != VERSION) {
+                throw new IOException("Not a scroll trace: " + file);
+            }
+            density = data.getFloat();
+            if (!(density > 0)) {
+                throw new IOException("Invalid density in scroll trace: " + file);
+            }
+        }
+
+        /**
+         * @return false at the end of the trace, a truncated last record is dropped
+         */
+        boolean next() {
+            if (!data.hasRemaining()) {
+                return false;
+            }
+            int start = data.position();
+            try {
+                type = data.get();
+                if (type == RECORD_TOUCH) {
+                    time = data.getLong();
+                    downTime = data.getLong();
+                    action = data.getInt();
+                    pointerCount = data.get();
+                    for (int i = 0; i < pointerCount; i++) {
+                        pointerIds[i] = data.get();
+                        pointerX[i] = data.getFloat();
+                        pointerY[i] = data.getFloat();
+                    }
+                } else if (type == RECORD_SCROLL) {
+                    time = data.getLong();
+                    scrollX = data.getInt();
+                    scrollY = data.getInt();
+                } else {
+                    data.position(data.limit());
+                    return false;
+                }
+                return true;
+            } catch (RuntimeException e) {
+                // BufferUnderflowException, or a pointer count beyond MAX_POINTERS
+                data.position(start);
+                data.limit(start);
+                return false;
+            }
+        }
+    }
+}
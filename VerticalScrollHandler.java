@@ -10,17 +10,18 @@ import com.google.appinventor.components.annotations.SimpleProperty;
 import com.google.appinventor.components.common.ComponentCategory;
 import com.google.appinventor.components.common.PropertyTypeConstants;
 import com.google.appinventor.components.runtime.AndroidNonvisibleComponent;
+import com.google.appinventor.components.runtime.AndroidViewComponent;
 import com.google.appinventor.components.runtime.Component;
 import com.google.appinventor.components.runtime.ComponentContainer;
 import com.google.appinventor.components.runtime.EventDispatcher;
 import com.google.appinventor.components.runtime.VerticalScrollArrangement;
+import com.google.appinventor.components.runtime.OnDestroyListener;
+import com.google.appinventor.components.runtime.OnPauseListener;
+import com.google.appinventor.components.runtime.util.YailList;
 
 import android.util.Log;
 
 import android.view.View;
-import android.view.ViewTreeObserver;
-import android.view.MotionEvent;
-import android.widget.ScrollView;
 
 @DesignerComponent(version = VerticalScrollHandler.VERSION,
     description = "by ColinTree at http://aix.colintree.cn/",
@@ -30,117 +31,130 @@ import android.widget.ScrollView;
 
 @SimpleObject(external = true)
 
-public class VerticalScrollHandler extends AndroidNonvisibleComponent implements Component {
+public class VerticalScrollHandler extends AndroidNonvisibleComponent implements Component,
+        OnDestroyListener, OnPauseListener {
 
-    public static final int VERSION = 3;
+    public static final int VERSION = 5;
 
-    private ComponentContainer container;
     private static final String LOG_TAG = "VerticalScrollHandler";
 
-    private int oldScrollY = 0;
-
-    private boolean userControl = true;
-    private boolean scrollBarEnabled = true;
-    private boolean fadingEdgeEnabled = true;
-    private int overScrollMode = View.OVER_SCROLL_IF_CONTENT_SCROLLS;
+    /**
+     * Names of the events, indexed by the bit of ScrollEngine.EVENT_*
+     */
+    private static final String[] EVENT_NAMES = {
+        "ReachTop", "ReachBottom", "ScrollChanged", "NearEnd", "VisibleRangeChanged", "BindRow",
+        "ThresholdCrossed", "LayoutChanged", "ScrollStateChanged", "AnimationFinished", "SnappedToChild",
+        "FlingStarted", "TouchDown", "TouchUp", "OverScrollDown", "OverScrollUp", "RefreshTriggered", "ReplayFinished"
+    };
 
-    private ScrollView scrollView = null;
+    private final ScrollEngine engine;
+    private String enabledEvents = "*";
 
     public VerticalScrollHandler(ComponentContainer container) {
         super(container.$form());
-        this.container = container;
-        Log.d(LOG_TAG, LOG_TAG+" Created" );
+        engine = new ScrollEngine(ScrollAxis.VERTICAL, container, new ScrollEngine.Events() {
+            @Override
+            void reachStart() {
+                ReachTop();
+            }
+            @Override
+            void reachEnd() {
+                ReachBottom();
+            }
+            @Override
+            void scrollChanged(int scroll) {
+                ScrollChanged(scroll);
+            }
+            @Override
+            void nearEnd(int remaining) {
+                NearEnd(remaining);
+            }
+            @Override
+            void visibleRangeChanged(int first, int last) {
+                VisibleRangeChanged(first, last);
+            }
+            @Override
+            void bindRow(AndroidViewComponent row, int index, Object data) {
+                BindRow(row, index, data);
+            }
+            @Override
+            void thresholdCrossed(String tag, int direction) {
+                ThresholdCrossed(tag, direction);
+            }
+            @Override
+            void layoutChanged(int contentSize, int viewportSize) {
+                LayoutChanged(contentSize, viewportSize);
+            }
+            @Override
+            void scrollStateChanged(int state) {
+                ScrollStateChanged(state);
+            }
+            @Override
+            void animationFinished(boolean completed) {
+                AnimationFinished(completed);
+            }
+            @Override
+            void snappedToChild(int index) {
+                SnappedToChild(index);
+            }
+            @Override
+            void flingStarted(float velocity, int predictedPosition) {
+                FlingStarted(velocity, predictedPosition);
+            }
+            @Override
+            void touchDown() {
+                TouchDown();
+            }
+            @Override
+            void touchUp() {
+                TouchUp();
+            }
+            @Override
+            boolean overScrollStart(float displacement) {
+                return OverScrollDown(displacement);
+            }
+            @Override
+            boolean overScrollEnd(float displacement) {
+                return OverScrollUp(displacement);
+            }
+            @Override
+            void refreshTriggered() {
+                RefreshTriggered();
+            }
+            @Override
+            void replayFinished(int recordedScroll) {
+                ReplayFinished(recordedScroll);
+            }
+        }, LOG_TAG);
+        form.registerForOnDestroy(this);
+        form.registerForOnPause(this);
+        Log.d(LOG_TAG, LOG_TAG + " Created" );
     }
 
     /**
-     * <p>
-     * greater than 1 usually, making the px numbers smaller than dx numbers.
-     * which means a px contains to more than one dx
-     * </p>
-     * e.g. on my P9 plus, once i got 3 from this, and width of an button in px is 30, and dx is 90.
-     */
-    private float deviceDensity() {
-        return container.$form().deviceDensity();
-    }
-    /**
-     * px (appinventor unit) to dx (android unit)
+     * Register an arrangement to this handler, it also becomes the ActiveArrangement.
+     * Registering the same arrangement again only makes it active.
+     * The handler takes over the scroll change and touch listeners of the arrangement,
+     * an arrangement registered on several handlers is followed by the last one only.
      */
-    private int px2dx(int px) {
-        return Math.round(px * deviceDensity());
-    }
-    /**
-     * dx (android unit) to px (appinventor unit)
-     */
-    private int dx2px(int dx) {
-        return Math.round(dx / deviceDensity());
+    @SimpleFunction
+    public void RegisterScrollView(VerticalScrollArrangement verticalScrollArrangement) {
+        engine.register(verticalScrollArrangement);
     }
-    private float dx2px(float dx) {
-        return dx / deviceDensity();
+
+    @SimpleFunction
+    public void UnregisterScrollView(VerticalScrollArrangement verticalScrollArrangement) {
+        engine.unregister(verticalScrollArrangement);
     }
 
+    @Override
+    public void onPause() {
+        engine.onPause();
+    }
 
-    @SimpleFunction
-    public void RegisterScrollView(VerticalScrollArrangement verticalScrollArrangement) {
-        scrollView = (ScrollView) verticalScrollArrangement.getView();
-        scrollView.getViewTreeObserver().addOnScrollChangedListener(
-            new ViewTreeObserver.OnScrollChangedListener() {
-                @Override
-                public void onScrollChanged() {
-                    onScroll();
-                }
-            });
-        scrollView.setOnTouchListener(new View.OnTouchListener() {
-            private boolean touchDownDetected = false;
-            private int touchDownScrollY = 0;
-            private int touchDownPointerId;
-            private float touchDownPointerY;
-            @Override
-            public boolean onTouch(View v, MotionEvent event) {
-                int action = event.getActionMasked();
-                if (action == MotionEvent.ACTION_DOWN) {
-                    onTouchDown(event);
-                } else if (action == MotionEvent.ACTION_MOVE) {
-                    if (onMove(event)) {
-                        return true;
-                    }
-                } else if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
-                    onTouchUp(event);
-                }
-                return !UserControl(); // => (UserControl()?false:true);
-            }
-            private void onTouchDown(MotionEvent event) {
-                TouchDown();
-                touchDownDetected = true;
-                touchDownScrollY = dx2px(scrollView.getScrollY());
-                touchDownPointerId = dx2px(event.getPointerId(0));
-                touchDownPointerY = dx2px(event.getY(0));
-            }
-            private boolean onMove(MotionEvent event) {
-                if (touchDownDetected == true) {
-                    int currentScrollY = dx2px(scrollView.getScrollY());
-                    float currentPointerY = dx2px(event.getY(event.findPointerIndex(touchDownPointerId)));
-
-                    if (touchDownScrollY <= 0 && currentScrollY <= 0) {
-                        return OverScrollDown(currentPointerY - touchDownPointerY);
-                    }
-                    int max = MaxScrollPosition();
-                    if (touchDownScrollY >= max && currentScrollY >= max) {
-                        return OverScrollUp(touchDownPointerY - currentPointerY);
-                    }
-                } else {
-                    onTouchDown(event);
-                    return onMove(event);
-                }
-                return false;
-            }
-            private void onTouchUp(MotionEvent event) {
-                TouchUp();
-                touchDownDetected = false;
-            }
-        });
-        OverScrollMode(OverScrollMode());
-        ScrollBarEnabled(ScrollBarEnabled());
-        FadingEdgeEnabled(FadingEdgeEnabled());
+    @Override
+    public void onDestroy() {
+        engine.onDestroy();
     }
 
     @SimpleEvent
@@ -154,23 +168,64 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
     @SimpleEvent
     public void ScrollChanged(int scrollY) {
         EventDispatcher.dispatchEvent(this, "ScrollChanged", scrollY);
-        if (scrollY == 0) {
-            ReachTop();
-        } else {
-            if (MaxScrollPosition() - ScrollPosition()<=0) {
-                ReachBottom();
-            }
-        }
     }
-    public void onScroll() {
-        int scrollY = dx2px(scrollView.getScrollY());
-        if (scrollY<0) {
-            scrollY = 0;
-        }
-        if (oldScrollY != scrollY) {
-            ScrollChanged(scrollY);
-            oldScrollY = scrollY;
-        }
+    @SimpleEvent
+    public void NearEnd(int remaining) {
+        EventDispatcher.dispatchEvent(this, "NearEnd", remaining);
+    }
+    /**
+     * Indexes start from 1 like App Inventor lists, both are 0 when no child is visible
+     */
+    @SimpleEvent
+    public void VisibleRangeChanged(int first, int last) {
+        EventDispatcher.dispatchEvent(this, "VisibleRangeChanged", first, last);
+    }
+    /**
+     * Fill a recycled row with the item at the index (from 1) of the recycling list data
+     */
+    @SimpleEvent
+    public void BindRow(AndroidViewComponent row, int index, Object data) {
+        EventDispatcher.dispatchEvent(this, "BindRow", row, index, data);
+    }
+    /**
+     * direction is 1 when crossed while scrolling towards the bottom, -1 towards the top
+     */
+    @SimpleEvent
+    public void ThresholdCrossed(String tag, int direction) {
+        EventDispatcher.dispatchEvent(this, "ThresholdCrossed", tag, direction);
+    }
+    @SimpleEvent
+    public void LayoutChanged(int contentSize, int viewportSize) {
+        EventDispatcher.dispatchEvent(this, "LayoutChanged", contentSize, viewportSize);
+    }
+    /**
+     * state is 0 when idle, 1 when dragged by the user, 2 when settling (e.g. after a fling)
+     */
+    @SimpleEvent
+    public void ScrollStateChanged(int state) {
+        EventDispatcher.dispatchEvent(this, "ScrollStateChanged", state);
+    }
+    /**
+     * completed is false when the animation was interrupted, e.g. by a touch
+     */
+    @SimpleEvent
+    public void AnimationFinished(boolean completed) {
+        EventDispatcher.dispatchEvent(this, "AnimationFinished", completed);
+    }
+    /**
+     * index (from 1) of the child, or of the page in page snapping, that the arrangement settled on
+     */
+    @SimpleEvent
+    public void SnappedToChild(int index) {
+        EventDispatcher.dispatchEvent(this, "SnappedToChild", index);
+    }
+    /**
+     * Raised when the user releases the arrangement fast enough to fling it.
+     * velocity is in px per second, predictedPosition is where the fling will stop
+     */
+    @SimpleEvent
+    public void FlingStarted(float velocity, int predictedPosition) {
+        EventDispatcher.dispatchEvent(this, "FlingStarted", velocity, predictedPosition);
     }
     @SimpleEvent
     public void TouchDown() {
@@ -181,111 +236,555 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
         EventDispatcher.dispatchEvent(this, "TouchUp");
     }
 
+    @SimpleEvent(description = "The arrangement was pulled past RefreshDistance and released. "
+            + "Call FinishRefresh when the new content is loaded.")
+    public void RefreshTriggered() {
+        EventDispatcher.dispatchEvent(this, "RefreshTriggered");
+    }
+
+    /**
+     * recordedScroll (in px) is where the arrangement was at the end of the recording,
+     * compare with ScrollPosition once it settled
+     */
+    @SimpleEvent
+    public void ReplayFinished(int recordedScroll) {
+        EventDispatcher.dispatchEvent(this, "ReplayFinished", recordedScroll);
+    }
+
     @SimpleEvent
     public boolean OverScrollDown(float displacement) {
-        if (displacement>0) {
+        if (displacement > 0) {
             return EventDispatcher.dispatchEvent(this, "OverScrollDown", displacement);
         }
         return false;
     }
     @SimpleEvent
     public boolean OverScrollUp(float displacement) {
-        if (displacement>0) {
+        if (displacement > 0) {
             return EventDispatcher.dispatchEvent(this, "OverScrollUp", displacement);
         }
         return false;
     }
 
 
+    @SimpleProperty(description = "The arrangement that the functions and properties of this handler act on. "
+            + "Defaults to the latest registered arrangement, setting it registers the arrangement if needed.")
+    public VerticalScrollArrangement ActiveArrangement() {
+        return (VerticalScrollArrangement) engine.activeArrangement();
+    }
+    @SimpleProperty
+    public void ActiveArrangement(VerticalScrollArrangement verticalScrollArrangement) {
+        RegisterScrollView(verticalScrollArrangement);
+    }
+
+    @SimpleProperty(description = "The arrangement that raised the event being handled. "
+            + "While an event is handled, the functions and properties of this handler act on this arrangement.")
+    public VerticalScrollArrangement EventSource() {
+        return (VerticalScrollArrangement) engine.eventSource();
+    }
+
+    @SimpleProperty(description = "Comma separated names of the events this handler raises, * for all of them. "
+            + "The work needed only by the other events, such as reading the layout to detect the edges, "
+            + "is skipped on every scroll and touch, e.g. an empty text when only ScrollTo is used.")
+    public String EnabledEvents() {
+        return enabledEvents;
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_STRING, defaultValue = "*")
+    public void EnabledEvents(String names) {
+        enabledEvents = names;
+        ScrollEngine.checkEventNames(LOG_TAG, names, EVENT_NAMES);
+        engine.setEnabledEvents(ScrollEngine.eventMask(names, EVENT_NAMES));
+    }
+
     @SimpleProperty
     public boolean UserControl() {
-        return userControl;
+        return engine.userControl();
     }
     @SimpleProperty
     @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "True")
     public void UserControl(boolean enable) {
-        userControl = enable;
+        engine.setUserControl(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, all the scroll changes within one display frame "
+            + "are merged into a single ScrollChanged event carrying the final position.")
+    public boolean CoalesceScrollEvents() {
+        return engine.coalesceScrollEvents();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void CoalesceScrollEvents(boolean enable) {
+        engine.setCoalesceScrollEvents(enable);
+    }
+
+    @SimpleProperty(description = "Minimum time in milliseconds between two coalesced ScrollChanged events. "
+            + "Only used when CoalesceScrollEvents is enabled.")
+    public int MinScrollEventInterval() {
+        return engine.minScrollEventInterval();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "0")
+    public void MinScrollEventInterval(int milliseconds) {
+        engine.setMinScrollEventInterval(milliseconds);
+    }
+
+    @SimpleProperty(description = "Minimum distance in px between two coalesced ScrollChanged events, "
+            + "reaching either end and the position the scroll comes to rest at are always reported. "
+            + "Only used when CoalesceScrollEvents is enabled.")
+    public int MinScrollEventDistance() {
+        return engine.minScrollEventDistance();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "0")
+    public void MinScrollEventDistance(int px) {
+        engine.setMinScrollEventDistance(px);
+    }
+
+    @SimpleProperty(description = "Distance in px to move away from an edge before ReachTop, "
+            + "ReachBottom and NearEnd can be raised again.")
+    public int ReachRearmDistance() {
+        return engine.reachRearmDistance();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "10")
+    public void ReachRearmDistance(int px) {
+        engine.setReachRearmDistance(px);
+    }
+
+    @SimpleProperty(description = "NearEnd is raised once the remaining distance to the end "
+            + "drops below this many px. 0 disables NearEnd unless NearEndThresholdViewports is set.")
+    public int NearEndThreshold() {
+        return engine.nearEndThreshold();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "0")
+    public void NearEndThreshold(int px) {
+        engine.setNearEndThreshold(px);
+    }
+
+    @SimpleProperty(description = "The NearEnd threshold in viewport sizes, e.g. 1.5 for one and a half screens. "
+            + "Overrides NearEndThreshold when greater than 0.")
+    public float NearEndThresholdViewports() {
+        return engine.nearEndThresholdViewports();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_FLOAT, defaultValue = "0")
+    public void NearEndThresholdViewports(float viewports) {
+        engine.setNearEndThresholdViewports(viewports);
+    }
+
+    @SimpleProperty(description = "Where the arrangement settles after the user releases it. Can be:\n"
+            + ScrollEngine.SNAP_NONE + ": NONE\n"
+            + ScrollEngine.SNAP_CHILD + ": the start of a CHILD\n"
+            + ScrollEngine.SNAP_PAGE + ": a PAGE, one viewport each")
+    public int SnapMode() {
+        return engine.snapMode();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "0")
+    public void SnapMode(int mode) {
+        engine.setSnapMode(mode);
+    }
+
+    @SimpleProperty(description = "If enabled, the first visible child keeps its place on screen when "
+            + "content before it changes size, e.g. images above the viewport finish loading. "
+            + "The position is corrected before the frame is drawn.")
+    public boolean ScrollAnchoring() {
+        return engine.scrollAnchoring();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void ScrollAnchoring(boolean enable) {
+        engine.setScrollAnchoring(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, pulling beyond either end moves the content with "
+            + "increasing resistance and it springs back on release. "
+            + "OverScrollDown and OverScrollUp are not raised while this handles the pull.")
+    public boolean ElasticOverScroll() {
+        return engine.elasticOverScroll();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void ElasticOverScroll(boolean enable) {
+        engine.setElasticOverScroll(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, pulling the content beyond the top by RefreshDistance "
+            + "raises RefreshTriggered on release. The content stays there until FinishRefresh.")
+    public boolean PullToRefresh() {
+        return engine.pullToRefresh();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void PullToRefresh(boolean enable) {
+        engine.setPullToRefresh(enable);
+    }
+
+    @SimpleProperty(description = "How far in px the content has to be pulled to refresh")
+    public int RefreshDistance() {
+        return engine.refreshDistance();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "80")
+    public void RefreshDistance(int px) {
+        engine.setRefreshDistance(px);
+    }
+
+    @SimpleProperty(description = "Component shown while pulling to refresh, fading in with the pull "
+            + "and kept visible until FinishRefresh")
+    public void RefreshIndicator(AndroidViewComponent component) {
+        engine.setRefreshIndicator(component);
+    }
+
+    @SimpleProperty(description = "Whether a refresh was triggered and FinishRefresh was not called yet")
+    public boolean Refreshing() {
+        return engine.refreshing();
+    }
+
+    @SimpleProperty(description = "If enabled, frame times while scrolling and the time taken by "
+            + "ScrollChanged are recorded, see GetScrollMetrics")
+    public boolean ScrollMetrics() {
+        return engine.scrollMetrics();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void ScrollMetrics(boolean enable) {
+        engine.setScrollMetrics(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, while the arrangement is dragged or settling, the children "
+            + "in and next to the viewport (or the components added with AddScrollLayer) are drawn from "
+            + "hardware layers instead of being redrawn on every frame, restored when it goes idle. "
+            + "Views longer than two viewports, and children with bound components inside, are left out. "
+            + "Best for heavy children that do not change while scrolling.")
+    public boolean ScrollRenderOptimization() {
+        return engine.renderOptimization();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void ScrollRenderOptimization(boolean enable) {
+        engine.setRenderOptimization(enable);
+    }
+
+    @SimpleProperty(description = "If enabled together with ScrollRenderOptimization, the fading edges "
+            + "and the fading of the scroll bar are turned off while scrolling.")
+    public boolean FadingOffWhileScrolling() {
+        return engine.fadingOffWhileScrolling();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void FadingOffWhileScrolling(boolean enable) {
+        engine.setFadingOffWhileScrolling(enable);
+    }
+
+    @SimpleProperty(description = "If enabled, children far outside the viewport are hidden while keeping "
+            + "their space, so that only the children near the viewport are measured and drawn. "
+            + "Children should not have margins in this mode.")
+    public boolean Virtualization() {
+        return engine.virtualization();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "False")
+    public void Virtualization(boolean enable) {
+        engine.setVirtualization(enable);
+    }
+
+    @SimpleProperty(description = "How many viewports of children ahead of the viewport stay laid out "
+            + "when Virtualization is enabled.")
+    public float VirtualizationViewportsAhead() {
+        return engine.virtualizationAhead();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_FLOAT, defaultValue = "2")
+    public void VirtualizationViewportsAhead(float viewports) {
+        engine.setVirtualizationAhead(viewports);
+    }
+
+    @SimpleProperty(description = "How many viewports of children behind the viewport stay laid out "
+            + "when Virtualization is enabled.")
+    public float VirtualizationViewportsBehind() {
+        return engine.virtualizationBehind();
+    }
+    @SimpleProperty
+    @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_FLOAT, defaultValue = "1")
+    public void VirtualizationViewportsBehind(float viewports) {
+        engine.setVirtualizationBehind(viewports);
+    }
+
+    @SimpleProperty(description = "Number of scroll callbacks dropped because they came from "
+            + "another view in the window. Always 0 on Android 6.0 and above, "
+            + "where the callbacks come from the registered views only.")
+    public int DroppedScrollCallbacks() {
+        return engine.droppedScrollCallbacks();
+    }
+
+    @SimpleProperty(description = "The total change of the scroll position (in px) "
+            + "reported by the latest ScrollChanged event.")
+    public int ScrollDelta() {
+        return engine.scrollDelta();
     }
 
     @SimpleProperty(category = PropertyCategory.APPEARANCE)
     public boolean ScrollBarEnabled() {
-        return scrollBarEnabled;
+        return engine.scrollBarEnabled();
     }
+    /**
+     * Applies to all the registered arrangements
+     */
     @SimpleProperty
     @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "True")
     public void ScrollBarEnabled(boolean enabled) {
-        this.scrollBarEnabled = enabled;
-        if (scrollView != null) {
-            ((ScrollView) scrollView).setVerticalScrollBarEnabled(enabled);
-        }
+        engine.setScrollBarEnabled(enabled);
+    }
+    @SimpleFunction(description = "Set ScrollBarEnabled of one arrangement only")
+    public void SetScrollBarEnabled(VerticalScrollArrangement verticalScrollArrangement, boolean enabled) {
+        engine.setScrollBarEnabled(verticalScrollArrangement, enabled);
     }
 
     @SimpleProperty(category = PropertyCategory.APPEARANCE)
     public boolean FadingEdgeEnabled() {
-        return fadingEdgeEnabled;
+        return engine.fadingEdgeEnabled();
     }
+    /**
+     * Applies to all the registered arrangements
+     */
     @SimpleProperty
     @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_BOOLEAN, defaultValue = "True")
     public void FadingEdgeEnabled(boolean enabled) {
-        this.fadingEdgeEnabled = enabled;
-        if (scrollView != null) {
-            ((ScrollView) scrollView).setVerticalFadingEdgeEnabled(enabled);
-        }
+        engine.setFadingEdgeEnabled(enabled);
+    }
+    @SimpleFunction(description = "Set FadingEdgeEnabled of one arrangement only")
+    public void SetFadingEdgeEnabled(VerticalScrollArrangement verticalScrollArrangement, boolean enabled) {
+        engine.setFadingEdgeEnabled(verticalScrollArrangement, enabled);
     }
 
     @SimpleProperty(category = PropertyCategory.APPEARANCE)
     public int OverScrollMode() {
-        return overScrollMode;
+        return engine.overScrollMode();
     }
-    @SimpleProperty(description = "Can be:\n "+
-            View.OVER_SCROLL_ALWAYS+": ALWAYS\n"+
-            View.OVER_SCROLL_IF_CONTENT_SCROLLS+": OVER SCROLL IF CONTENT SCROLLS\n"+
-            View.OVER_SCROLL_NEVER+": NEVER")
+    /**
+     * Applies to all the registered arrangements
+     */
+    @SimpleProperty(description = "Can be:\n " +
+            View.OVER_SCROLL_ALWAYS + ": ALWAYS\n" +
+            View.OVER_SCROLL_IF_CONTENT_SCROLLS + ": OVER SCROLL IF CONTENT SCROLLS\n" +
+            View.OVER_SCROLL_NEVER + ": NEVER")
     @DesignerProperty(editorType = PropertyTypeConstants.PROPERTY_TYPE_NON_NEGATIVE_INTEGER, defaultValue = "1")
     public void OverScrollMode(int mode) {
-        if (mode != View.OVER_SCROLL_ALWAYS && mode != View.OVER_SCROLL_IF_CONTENT_SCROLLS &&
-                mode != View.OVER_SCROLL_NEVER) {
-            mode = View.OVER_SCROLL_IF_CONTENT_SCROLLS;
-        }
-        this.overScrollMode = mode;
+        engine.setOverScrollMode(mode);
+    }
+    @SimpleFunction(description = "Set OverScrollMode of one arrangement only")
+    public void SetOverScrollMode(VerticalScrollArrangement verticalScrollArrangement, int mode) {
+        engine.setOverScrollMode(verticalScrollArrangement, mode);
+    }
+
+    @SimpleProperty(description = "0: IDLE, 1: DRAGGING (moved by the user), 2: SETTLING (still moving "
+            + "after the user released it, e.g. a fling). Heavy work is best done when it is IDLE.")
+    public int ScrollState() {
+        return engine.scrollState();
     }
 
-    @SimpleProperty(category = PropertyCategory.APPEARANCE, 
+    @SimpleProperty(description = "The current scroll velocity in px per second, "
+            + "positive towards the bottom. 0 when idle.")
+    public float ScrollVelocity() {
+        return engine.scrollVelocity();
+    }
+
+    @SimpleProperty(category = PropertyCategory.APPEARANCE,
         description = "The scroll position is the same as the number of pixels that "
             + "are hidden from view above the scrollable area. "
             + "If the scroll bar is at the very top, or if the element is not scrollable, this number will be 0.")
     public int ScrollPosition() {
-        int dxPosition = dx2px(scrollView.getScrollY());
-        if (dxPosition < 0) {
-            return 0;
-        } else if (dxPosition > MaxScrollPosition()) {
-            return MaxScrollPosition();
-        }
-        return dxPosition;
+        return engine.scrollPosition();
     }
 
-    @SimpleProperty(category = PropertyCategory.APPEARANCE, 
+    @SimpleProperty(category = PropertyCategory.APPEARANCE,
         description = "Return the maximum position that the ScrollArrangement can reach")
     public int MaxScrollPosition() {
-        View view = (View) scrollView.getChildAt(scrollView.getChildCount() - 1);
-        return dx2px(view.getBottom() - scrollView.getHeight());
+        return engine.maxScrollPosition();
+    }
+
+    @SimpleProperty(description = "Index (from 1) of the first child of the arrangement that is at least "
+            + "partly on screen, 0 if none.")
+    public int FirstVisibleIndex() {
+        return engine.firstVisibleIndex();
+    }
+
+    @SimpleProperty(description = "Index (from 1) of the last child of the arrangement that is at least "
+            + "partly on screen, 0 if none.")
+    public int LastVisibleIndex() {
+        return engine.lastVisibleIndex();
+    }
+
+    @SimpleFunction(description = "Whether the child at the index (from 1) is at least partly on screen")
+    public boolean IsChildVisible(int index) {
+        return engine.isChildVisible(index);
     }
 
+    @SimpleFunction(description = "Turn the active arrangement into a recycling list. rows is a list of "
+            + "identical arrangements of the same size, which must be the only children of the active arrangement, "
+            + "enough of them to fill the screen plus a few. They are reused for the items of data "
+            + "while scrolling, BindRow is raised whenever a row has to show another item.")
+    public void SetRecyclingList(YailList rows, YailList data) {
+        engine.setRecyclingList(rows, data);
+    }
+
+    @SimpleFunction(description = "Replace the data of the recycling list of the active arrangement "
+            + "and bind the rows again.")
+    public void UpdateRecyclingData(YailList data) {
+        engine.updateRecyclingData(data);
+    }
+
+    @SimpleFunction(description = "Stop recycling the rows of the active arrangement")
+    public void ClearRecyclingList() {
+        engine.clearRecyclingList();
+    }
+
+    @SimpleFunction(description = "Raise ThresholdCrossed with the tag whenever the scroll position "
+            + "of the active arrangement crosses the position (in px).")
+    public void AddThreshold(int position, String tag) {
+        engine.addThreshold(position, tag);
+    }
+
+    @SimpleFunction(description = "Remove the thresholds of the active arrangement with the tag")
+    public void RemoveThreshold(String tag) {
+        engine.removeThreshold(tag);
+    }
+
+    @SimpleFunction(description = "Remove all the thresholds of the active arrangement")
+    public void ClearThresholds() {
+        engine.clearThresholds();
+    }
+
+    @SimpleFunction(description = "Move the component along the vertical axis while the active arrangement "
+            + "scrolls: from scrollFrom to scrollTo (in px) the offset goes from offsetFrom to offsetTo (in px). "
+            + "If clamped is false, the offset keeps changing outside the range. "
+            + "Applied natively on every scroll change, ScrollChanged is not needed.")
+    public void BindTranslation(AndroidViewComponent component, int scrollFrom, int scrollTo,
+            int offsetFrom, int offsetTo, boolean clamped) {
+        engine.bindTranslation(component, scrollFrom, scrollTo, offsetFrom, offsetTo, clamped);
+    }
+
+    @SimpleFunction(description = "Fade the component while the active arrangement scrolls: "
+            + "from scrollFrom to scrollTo (in px) the alpha goes from alphaFrom to alphaTo (0 to 1).")
+    public void BindAlpha(AndroidViewComponent component, int scrollFrom, int scrollTo,
+            float alphaFrom, float alphaTo, boolean clamped) {
+        engine.bindAlpha(component, scrollFrom, scrollTo, alphaFrom, alphaTo, clamped);
+    }
+
+    @SimpleFunction(description = "Scale the component while the active arrangement scrolls: "
+            + "from scrollFrom to scrollTo (in px) the scale goes from scaleFrom to scaleTo (1 is the normal size).")
+    public void BindScale(AndroidViewComponent component, int scrollFrom, int scrollTo,
+            float scaleFrom, float scaleTo, boolean clamped) {
+        engine.bindScale(component, scrollFrom, scrollTo, scaleFrom, scaleTo, clamped);
+    }
+
+    @SimpleFunction(description = "Keep the component, which has to be inside the active arrangement, "
+            + "pinned offset px from the top of the viewport once it is scrolled there, "
+            + "until the end of its parent arrangement pushes it away.")
+    public void BindSticky(AndroidViewComponent component, int offset) {
+        engine.bindSticky(component, offset);
+    }
+
+    @SimpleFunction(description = "Remove all the bindings of the component and put it back in place")
+    public void Unbind(AndroidViewComponent component) {
+        engine.unbind(component);
+    }
+
+    @SimpleFunction(description = "Remove all the bindings of the active arrangement")
+    public void ClearBindings() {
+        engine.clearBindings();
+    }
+
+    @SimpleFunction(description = "Draw the component, which has to be inside the active arrangement, "
+            + "from a hardware layer while scrolling with ScrollRenderOptimization, "
+            + "instead of the children around the viewport. Applies from the next scroll.")
+    public void AddScrollLayer(AndroidViewComponent component) {
+        engine.addScrollLayer(component);
+    }
+
+    @SimpleFunction(description = "Stop drawing the component from a hardware layer while scrolling")
+    public void RemoveScrollLayer(AndroidViewComponent component) {
+        engine.removeScrollLayer(component);
+    }
 
+    @SimpleFunction(description = "Remove all the components added with AddScrollLayer of the active arrangement, "
+            + "the children around the viewport are drawn from hardware layers again")
+    public void ClearScrollLayers() {
+        engine.clearScrollLayers();
+    }
+
+    @SimpleFunction(description = "Scroll the registered arrangement together with the other arrangements "
+            + "of the same group, within the same frame. Each arrangement is kept at groupPosition * ratio, "
+            + "e.g. ratio 0.5 moves it half as far as the ones with ratio 1.")
+    public void LinkScroll(VerticalScrollArrangement verticalScrollArrangement, String group, float ratio) {
+        engine.linkScroll(verticalScrollArrangement, group, ratio);
+    }
+
+    @SimpleFunction(description = "Stop scrolling the arrangement with its link group")
+    public void UnlinkScroll(VerticalScrollArrangement verticalScrollArrangement) {
+        engine.unlinkScroll(verticalScrollArrangement);
+    }
+
+    @SimpleFunction(description = "End the refresh started by RefreshTriggered, "
+            + "the content moves back into place")
+    public void FinishRefresh() {
+        engine.finishRefresh();
+    }
+
+    @SimpleFunction(description = "The scroll metrics recorded since ScrollMetrics was enabled or "
+            + "ResetScrollMetrics, as a list of pairs. Times are in milliseconds; "
+            + "JankFrames counts the frames longer than 1.5 refresh intervals. "
+            + "ScrollCallbackTime is the work of the handler itself on every scroll change, "
+            + "without the blocks of the events it raises; TouchTime is the touch listener including its events. "
+            + "Optimized and Unoptimized split the frames by whether ScrollRenderOptimization was applied.")
+    public YailList GetScrollMetrics() {
+        return engine.scrollMetricsList();
+    }
+
+    @SimpleFunction(description = "Clear the recorded scroll metrics")
+    public void ResetScrollMetrics() {
+        engine.resetScrollMetrics();
+    }
+
+    @SimpleFunction(description = "Record every touch and scroll change of the active arrangement "
+            + "into a compact binary trace file, relative paths are in the private files of the app")
+    public void StartTraceRecording(String path) {
+        engine.startTraceRecording(path);
+    }
+
+    @SimpleFunction(description = "Stop recording and write the rest of the trace file")
+    public void StopTraceRecording() {
+        engine.stopTraceRecording();
+    }
+
+    @SimpleFunction(description = "Feed the touches of a recorded trace into the active arrangement "
+            + "with their recorded timing, raising ReplayFinished at the end")
+    public void ReplayTrace(String path) {
+        engine.replayTrace(path);
+    }
+
+    @SimpleFunction(description = "Stop the running ReplayTrace, ReplayFinished is not raised")
+    public void StopReplay() {
+        engine.stopReplay();
+    }
+
+    /**
+     * Go to the top
+     */
     @SimpleFunction
     public void ScrollTop() {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.fullScroll(ScrollView.FOCUS_UP);
+        engine.fullScroll(false);
     }
 
+    /**
+     * Go to the bottom
+     */
     @SimpleFunction
     public void ScrollBottom() {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.fullScroll(ScrollView.FOCUS_DOWN);
+        engine.fullScroll(true);
     }
 
     /**
@@ -293,10 +792,7 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
      */
     @SimpleFunction
     public void ArrowScrollUpward() {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.arrowScroll(ScrollView.FOCUS_UP);
+        engine.arrowScroll(false);
     }
 
     /**
@@ -304,10 +800,7 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
      */
     @SimpleFunction
     public void ArrowScrollDownward() {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.arrowScroll(ScrollView.FOCUS_DOWN);
+        engine.arrowScroll(true);
     }
 
     /*
@@ -315,10 +808,7 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
      */
     @SimpleFunction
     public void PageScrollUpward() {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.pageScroll(ScrollView.FOCUS_UP);
+        engine.pageScroll(false);
     }
 
     /*
@@ -326,10 +816,7 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
      */
     @SimpleFunction
     public void PageScrollDownward() {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.pageScroll(ScrollView.FOCUS_DOWN);
+        engine.pageScroll(true);
     }
 
     /**
@@ -337,34 +824,58 @@ public class VerticalScrollHandler extends AndroidNonvisibleComponent implements
      */
     @SimpleFunction
     public void ScrollTo(int px) {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.scrollTo(0, px2dx(px));
+        engine.scrollTo(px);
     }
 
     @SimpleFunction
     public void ScrollBy(int px) {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.scrollBy(0, px2dx(px));
+        engine.scrollBy(px);
     }
 
     @SimpleFunction
     public void SmoothScrollTo(int px) {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.smoothScrollTo(0, px2dx(px));
+        engine.smoothScrollTo(px);
     }
 
     @SimpleFunction
     public void SmoothScrollBy(int px) {
-        if (scrollView == null) {
-            return;
-        }
-        scrollView.smoothScrollBy(0, px2dx(px));
+        engine.smoothScrollBy(px);
+    }
+
+    @SimpleFunction(description = "Scroll to the position (in px) within durationMs milliseconds, "
+            + "animated natively on every frame. Easing can be:\n"
+            + ScrollEngine.EASING_LINEAR + ": LINEAR\n"
+            + ScrollEngine.EASING_IN + ": EASE IN\n"
+            + ScrollEngine.EASING_OUT + ": EASE OUT\n"
+            + ScrollEngine.EASING_IN_OUT + ": EASE IN OUT\n"
+            + "A touch on the arrangement cancels the animation.")
+    public void AnimateScrollTo(int px, int durationMs, int easing) {
+        engine.animateScrollTo(px, durationMs, easing);
+    }
+
+    @SimpleFunction(description = "Like AnimateScrollTo, relative to the current position")
+    public void AnimateScrollBy(int px, int durationMs, int easing) {
+        engine.animateScrollBy(px, durationMs, easing);
+    }
+
+    @SimpleFunction(description = "Stop the running AnimateScrollTo/AnimateScrollBy, "
+            + "AnimationFinished is raised with completed as false.")
+    public void CancelAnimation() {
+        engine.cancelAnimation();
+    }
+
+    @SimpleFunction(description = "Scroll the active arrangement to one of its children. Alignment can be:\n"
+            + ScrollEngine.ALIGN_START + ": the START of the child at the top\n"
+            + ScrollEngine.ALIGN_CENTER + ": the child at the CENTER\n"
+            + ScrollEngine.ALIGN_END + ": the END of the child at the bottom\n"
+            + ScrollEngine.ALIGN_NEAREST + ": NEAREST, scroll as little as possible to show the child")
+    public void ScrollToComponent(AndroidViewComponent component, int alignment, boolean animated) {
+        engine.scrollToComponent(component, alignment, animated);
+    }
+
+    @SimpleFunction(description = "Like ScrollToComponent, with the index (from 1) of the child")
+    public void ScrollToIndex(int index, int alignment, boolean animated) {
+        engine.scrollToIndex(index, alignment, animated);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package android.app;
+
+import android.content.Context;
+import android.view.Display;
+import android.view.View;
+import android.view.WindowManager;
+
+public class Activity extends Context {
+
+    private final WindowManager windowManager = new WindowManager() {
+        private final Display display = new Display();
+
+        @Override
+        public Display getDefaultDisplay() {
+            return display;
+        }
+    };
+
+    public WindowManager getWindowManager() {
+        return windowManager;
+    }
+
+    /**
+     * Attaches the view as the root of the window, laid out on the next frame to the window size
+     */
+    public void setContentView(View view) {
+        view.attachToWindow(this);
+    }
+}
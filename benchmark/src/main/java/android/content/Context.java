@@ -0,0 +1,16 @@
+package android.content;
+
+import java.io.File;
+
+public class Context {
+
+    private File filesDir;
+
+    public File getFilesDir() {
+        if (filesDir == null) {
+            filesDir = new File(System.getProperty("java.io.tmpdir"), "scroll-handlers-files");
+            filesDir.mkdirs();
+        }
+        return filesDir;
+    }
+}
@@ -0,0 +1,31 @@
+package android.os;
+
+public class Handler {
+
+    private final Looper looper;
+
+    public Handler() {
+        this(Looper.myLooper());
+    }
+
+    public Handler(Looper looper) {
+        this.looper = looper;
+    }
+
+    public boolean post(Runnable r) {
+        return postAtTime(r, SystemClock.uptimeMillis());
+    }
+
+    public boolean postDelayed(Runnable r, long delayMillis) {
+        return postAtTime(r, SystemClock.uptimeMillis() + Math.max(0, delayMillis));
+    }
+
+    public boolean postAtTime(Runnable r, long uptimeMillis) {
+        looper.enqueue(this, r, uptimeMillis);
+        return true;
+    }
+
+    public void removeCallbacks(Runnable r) {
+        looper.remove(this, r);
+    }
+}
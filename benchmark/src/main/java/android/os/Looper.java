@@ -0,0 +1,69 @@
+package android.os;
+
+import java.util.ArrayList;
+
+/**
+ * Stand-in: the main thread message queue, run by idle() instead of a thread
+ */
+public final class Looper {
+
+    private static final Looper MAIN = new Looper();
+
+    private final ArrayList<Message> queue = new ArrayList<Message>();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+
+    public static Looper myLooper() {
+        return MAIN;
+    }
+
+    void enqueue(Handler handler, Runnable callback, long uptimeMillis) {
+        int index = queue.size();
+        while (index > 0 && queue.get(index - 1).when > uptimeMillis) {
+            index--;
+        }
+        queue.add(index, new Message(handler, callback, uptimeMillis));
+    }
+
+    void remove(Handler handler, Runnable callback) {
+        for (int i = queue.size() - 1; i >= 0; i--) {
+            Message message = queue.get(i);
+            if (message.handler == handler && message.callback == callback) {
+                queue.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Stand-in only: run every message due by SystemClock.uptimeMillis(), in order
+     */
+    public void idle() {
+        while (!queue.isEmpty() && queue.get(0).when <= SystemClock.uptimeMillis()) {
+            queue.remove(0).callback.run();
+        }
+    }
+
+    /**
+     * Stand-in only: the uptime of the next message, Long.MAX_VALUE if none is queued
+     */
+    public long nextMessageTime() {
+        return queue.isEmpty() ? Long.MAX_VALUE : queue.get(0).when;
+    }
+
+    private static final class Message {
+        final Handler handler;
+        final Runnable callback;
+        final long when;
+
+        Message(Handler handler, Runnable callback, long when) {
+            this.handler = handler;
+            this.callback = callback;
+            this.when = when;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package android.os;
+
+/**
+ * Stand-in: a clock that only moves when told to, see Choreographer#runFrame()
+ */
+public final class SystemClock {
+
+    private static long uptimeNanos = 1000000000L;
+
+    private SystemClock() {
+    }
+
+    public static long uptimeMillis() {
+        return uptimeNanos / 1000000L;
+    }
+
+    public static long elapsedRealtimeNanos() {
+        return uptimeNanos;
+    }
+
+    /**
+     * Stand-in only: move the clock forward, without running anything that became due
+     */
+    public static void advanceNanos(long nanos) {
+        uptimeNanos += Math.max(0, nanos);
+    }
+}
@@ -0,0 +1,45 @@
+package android.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in: only warnings and errors are printed, the warnings are kept for the tests
+ */
+public final class Log {
+
+    private static final List<String> warnings = new ArrayList<>();
+
+    private Log() {
+    }
+
+    public static List<String> warnings() {
+        return warnings;
+    }
+
+    public static void reset() {
+        warnings.clear();
+    }
+
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+
+    public static int i(String tag, String msg) {
+        return 0;
+    }
+
+    public static int w(String tag, String msg) {
+        System.err.println("W/" + tag + ": " + msg);
+        warnings.add(msg);
+        return 0;
+    }
+
+    public static int e(String tag, String msg, Throwable tr) {
+        System.err.println("E/" + tag + ": " + msg);
+        if (tr != null) {
+            tr.printStackTrace();
+        }
+        return 0;
+    }
+}
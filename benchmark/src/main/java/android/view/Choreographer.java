@@ -0,0 +1,132 @@
+package android.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * Stand-in: frames only happen when runFrame() is called. A frame moves the clock by one refresh interval,
+ * runs the messages due by then, the frame callbacks posted before the frame, and the traversals.
+ * Nothing is allocated per frame once the arrays have grown.
+ */
+public final class Choreographer {
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+
+    /**
+     * Stand-in only: 60 Hz
+     */
+    public static final long FRAME_INTERVAL_NANOS = 16666667L;
+
+    private static final Choreographer INSTANCE = new Choreographer();
+
+    private FrameCallback[] callbacks = new FrameCallback[16];
+    private long[] dueNanos = new long[16];
+    private int callbackCount = 0;
+    private FrameCallback[] running = new FrameCallback[16];
+    private final ArrayList<View> traversals = new ArrayList<View>();
+    private View[] traversing = new View[4];
+
+    private Choreographer() {
+    }
+
+    public static Choreographer getInstance() {
+        return INSTANCE;
+    }
+
+    public void postFrameCallback(FrameCallback callback) {
+        postFrameCallbackDelayed(callback, 0);
+    }
+
+    public void postFrameCallbackDelayed(FrameCallback callback, long delayMillis) {
+        if (callbackCount == callbacks.length) {
+            callbacks = Arrays.copyOf(callbacks, callbackCount * 2);
+            dueNanos = Arrays.copyOf(dueNanos, callbackCount * 2);
+        }
+        callbacks[callbackCount] = callback;
+        dueNanos[callbackCount] = SystemClock.elapsedRealtimeNanos() + Math.max(0, delayMillis) * 1000000L;
+        callbackCount++;
+    }
+
+    public void removeFrameCallback(FrameCallback callback) {
+        int kept = 0;
+        for (int i = 0; i < callbackCount; i++) {
+            if (callbacks[i] != callback) {
+                callbacks[kept] = callbacks[i];
+                dueNanos[kept] = dueNanos[i];
+                kept++;
+            }
+        }
+        Arrays.fill(callbacks, kept, callbackCount, null);
+        callbackCount = kept;
+    }
+
+    void scheduleTraversal(View root) {
+        if (!traversals.contains(root)) {
+            traversals.add(root);
+        }
+    }
+
+    /**
+     * Stand-in only: run one frame
+     */
+    public void runFrame() {
+        SystemClock.advanceNanos(FRAME_INTERVAL_NANOS);
+        Looper.getMainLooper().idle();
+        long frameTimeNanos = SystemClock.elapsedRealtimeNanos();
+
+        // callbacks posted by the callbacks of this frame wait for the next one
+        int due = 0;
+        int kept = 0;
+        if (running.length < callbackCount) {
+            running = new FrameCallback[callbacks.length];
+        }
+        for (int i = 0; i < callbackCount; i++) {
+            if (dueNanos[i] <= frameTimeNanos) {
+                running[due++] = callbacks[i];
+            } else {
+                callbacks[kept] = callbacks[i];
+                dueNanos[kept] = dueNanos[i];
+                kept++;
+            }
+        }
+        Arrays.fill(callbacks, kept, callbackCount, null);
+        callbackCount = kept;
+        for (int i = 0; i < due; i++) {
+            FrameCallback callback = running[i];
+            running[i] = null;
+            callback.doFrame(frameTimeNanos);
+        }
+
+        int roots = traversals.size();
+        if (traversing.length < roots) {
+            traversing = new View[roots];
+        }
+        for (int i = 0; i < roots; i++) {
+            traversing[i] = traversals.get(i);
+        }
+        traversals.clear();
+        for (int i = 0; i < roots; i++) {
+            traversing[i].performTraversal();
+            traversing[i] = null;
+        }
+    }
+
+    /**
+     * Stand-in only: run frames until nothing is scheduled any more, at most maxFrames
+     * @return the number of frames run
+     */
+    public int runUntilIdle(int maxFrames) {
+        int frames = 0;
+        while (frames < maxFrames && (callbackCount > 0 || !traversals.isEmpty()
+                || Looper.getMainLooper().nextMessageTime() != Long.MAX_VALUE)) {
+            runFrame();
+            frames++;
+        }
+        return frames;
+    }
+}
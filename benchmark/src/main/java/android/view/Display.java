@@ -0,0 +1,38 @@
+package android.view;
+
+/**
+ * Stand-in: a 480 x 800 px window refreshed at 60 Hz unless set otherwise
+ */
+public class Display {
+
+    private int width = 480;
+    private int height = 800;
+    private float refreshRate = 60f;
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getRefreshRate() {
+        return refreshRate;
+    }
+
+    /**
+     * Stand-in only
+     */
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Stand-in only
+     */
+    public void setRefreshRate(float refreshRate) {
+        this.refreshRate = refreshRate;
+    }
+}
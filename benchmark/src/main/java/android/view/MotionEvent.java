@@ -0,0 +1,176 @@
+package android.view;
+
+/**
+ * Stand-in: a touch event of up to ten pointers, not pooled
+ */
+public final class MotionEvent {
+
+    public static final int ACTION_MASK = 0xff;
+    public static final int ACTION_POINTER_INDEX_MASK = 0xff00;
+    public static final int ACTION_POINTER_INDEX_SHIFT = 8;
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    public static final int ACTION_CANCEL = 3;
+    public static final int ACTION_POINTER_DOWN = 5;
+    public static final int ACTION_POINTER_UP = 6;
+    public static final int TOOL_TYPE_FINGER = 1;
+
+    private static final int MAX_POINTERS = 10;
+
+    public static final class PointerCoords {
+        public float x;
+        public float y;
+
+        public void clear() {
+            x = 0;
+            y = 0;
+        }
+    }
+
+    public static final class PointerProperties {
+        public int id;
+        public int toolType;
+
+        public void clear() {
+            id = -1;
+            toolType = 0;
+        }
+    }
+
+    private long downTime;
+    private long eventTime;
+    private int action;
+    private int pointerCount;
+    private final int[] pointerIds = new int[MAX_POINTERS];
+    private final float[] xs = new float[MAX_POINTERS];
+    private final float[] ys = new float[MAX_POINTERS];
+
+    private MotionEvent() {
+    }
+
+    public static MotionEvent obtain(long downTime, long eventTime, int action, float x, float y, int metaState) {
+        MotionEvent event = new MotionEvent();
+        event.downTime = downTime;
+        event.eventTime = eventTime;
+        event.action = action;
+        event.pointerCount = 1;
+        event.xs[0] = x;
+        event.ys[0] = y;
+        return event;
+    }
+
+    public static MotionEvent obtain(long downTime, long eventTime, int action, int pointerCount,
+            PointerProperties[] pointerProperties, PointerCoords[] pointerCoords, int metaState, int buttonState,
+            float xPrecision, float yPrecision, int deviceId, int edgeFlags, int source, int flags) {
+        MotionEvent event = new MotionEvent();
+        event.downTime = downTime;
+        event.eventTime = eventTime;
+        event.action = action;
+        event.pointerCount = Math.min(pointerCount, MAX_POINTERS);
+        for (int i = 0; i < event.pointerCount; i++) {
+            event.pointerIds[i] = pointerProperties[i].id;
+            event.xs[i] = pointerCoords[i].x;
+            event.ys[i] = pointerCoords[i].y;
+        }
+        return event;
+    }
+
+    public static MotionEvent obtain(MotionEvent other) {
+        MotionEvent event = new MotionEvent();
+        event.downTime = other.downTime;
+        event.eventTime = other.eventTime;
+        event.action = other.action;
+        event.pointerCount = other.pointerCount;
+        System.arraycopy(other.pointerIds, 0, event.pointerIds, 0, MAX_POINTERS);
+        System.arraycopy(other.xs, 0, event.xs, 0, MAX_POINTERS);
+        System.arraycopy(other.ys, 0, event.ys, 0, MAX_POINTERS);
+        return event;
+    }
+
+    public void recycle() {
+    }
+
+    public int getAction() {
+        return action;
+    }
+
+    public void setAction(int action) {
+        this.action = action;
+    }
+
+    public int getActionMasked() {
+        return action & ACTION_MASK;
+    }
+
+    public int getActionIndex() {
+        return (action & ACTION_POINTER_INDEX_MASK) >> ACTION_POINTER_INDEX_SHIFT;
+    }
+
+    public long getDownTime() {
+        return downTime;
+    }
+
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    /**
+     * Stand-in only: reuse the event for the next move of the same gesture
+     */
+    public void setEventTime(long eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public int getPointerCount() {
+        return pointerCount;
+    }
+
+    public int getPointerId(int pointerIndex) {
+        return pointerIds[pointerIndex];
+    }
+
+    public int findPointerIndex(int pointerId) {
+        for (int i = 0; i < pointerCount; i++) {
+            if (pointerIds[i] == pointerId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public float getX() {
+        return xs[0];
+    }
+
+    public float getY() {
+        return ys[0];
+    }
+
+    public float getX(int pointerIndex) {
+        return xs[pointerIndex];
+    }
+
+    public float getY(int pointerIndex) {
+        return ys[pointerIndex];
+    }
+
+    public float getRawX() {
+        return xs[0];
+    }
+
+    public float getRawY() {
+        return ys[0];
+    }
+
+    public void setLocation(float x, float y) {
+        offsetLocation(x - xs[0], y - ys[0]);
+    }
+
+    public void offsetLocation(float deltaX, float deltaY) {
+        for (int i = 0; i < pointerCount; i++) {
+            xs[i] += deltaX;
+            ys[i] += deltaY;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package android.view;
+
+/**
+ * Stand-in: the velocity of each pointer over its last 100 ms of movement, without allocating per movement
+ */
+public final class VelocityTracker {
+
+    private static final int MAX_POINTERS = 10;
+    private static final int HISTORY = 20;
+    private static final long HORIZON_MILLIS = 100;
+
+    private final int[] ids = new int[MAX_POINTERS];
+    private final long[][] times = new long[MAX_POINTERS][HISTORY];
+    private final float[][] xs = new float[MAX_POINTERS][HISTORY];
+    private final float[][] ys = new float[MAX_POINTERS][HISTORY];
+    private final int[] counts = new int[MAX_POINTERS];
+    private final int[] heads = new int[MAX_POINTERS];
+    private final float[] xVelocities = new float[MAX_POINTERS];
+    private final float[] yVelocities = new float[MAX_POINTERS];
+    private int trackedPointers = 0;
+
+    private VelocityTracker() {
+    }
+
+    public static VelocityTracker obtain() {
+        return new VelocityTracker();
+    }
+
+    public void recycle() {
+    }
+
+    public void clear() {
+        trackedPointers = 0;
+    }
+
+    public void addMovement(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            clear();
+        }
+        for (int p = 0; p < event.getPointerCount(); p++) {
+            int slot = slot(event.getPointerId(p));
+            if (slot < 0) {
+                continue;
+            }
+            int head = (heads[slot] + 1) % HISTORY;
+            heads[slot] = head;
+            times[slot][head] = event.getEventTime();
+            xs[slot][head] = event.getX(p);
+            ys[slot][head] = event.getY(p);
+            counts[slot] = Math.min(counts[slot] + 1, HISTORY);
+        }
+    }
+
+    private int slot(int pointerId) {
+        for (int i = 0; i < trackedPointers; i++) {
+            if (ids[i] == pointerId) {
+                return i;
+            }
+        }
+        if (trackedPointers == MAX_POINTERS) {
+            return -1;
+        }
+        int slot = trackedPointers++;
+        ids[slot] = pointerId;
+        counts[slot] = 0;
+        heads[slot] = HISTORY - 1;
+        xVelocities[slot] = 0;
+        yVelocities[slot] = 0;
+        return slot;
+    }
+
+    public void computeCurrentVelocity(int units) {
+        computeCurrentVelocity(units, Float.MAX_VALUE);
+    }
+
+    public void computeCurrentVelocity(int units, float maxVelocity) {
+        for (int slot = 0; slot < trackedPointers; slot++) {
+            int head = heads[slot];
+            long newest = times[slot][head];
+            int oldest = head;
+            for (int n = 1; n < counts[slot]; n++) {
+                int index = (head - n + HISTORY) % HISTORY;
+                if (newest - times[slot][index] > HORIZON_MILLIS) {
+                    break;
+                }
+                oldest = index;
+            }
+            long duration = newest - times[slot][oldest];
+            if (duration <= 0) {
+                xVelocities[slot] = 0;
+                yVelocities[slot] = 0;
+                continue;
+            }
+            xVelocities[slot] = clamp((xs[slot][head] - xs[slot][oldest]) * units / duration, maxVelocity);
+            yVelocities[slot] = clamp((ys[slot][head] - ys[slot][oldest]) * units / duration, maxVelocity);
+        }
+    }
+
+    private static float clamp(float velocity, float max) {
+        return Math.max(-max, Math.min(max, velocity));
+    }
+
+    public float getXVelocity() {
+        return trackedPointers == 0 ? 0 : xVelocities[0];
+    }
+
+    public float getYVelocity() {
+        return trackedPointers == 0 ? 0 : yVelocities[0];
+    }
+
+    public float getXVelocity(int pointerId) {
+        for (int i = 0; i < trackedPointers; i++) {
+            if (ids[i] == pointerId) {
+                return xVelocities[i];
+            }
+        }
+        return 0;
+    }
+
+    public float getYVelocity(int pointerId) {
+        for (int i = 0; i < trackedPointers; i++) {
+            if (ids[i] == pointerId) {
+                return yVelocities[i];
+            }
+        }
+        return 0;
+    }
+}
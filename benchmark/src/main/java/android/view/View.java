@@ -0,0 +1,582 @@
+package android.view;
+
+import java.util.ArrayList;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Stand-in: bounds, scrolling, measure and layout, listeners and the drawing related state
+ * the extension reads back. Nothing is drawn; a frame only lays out and dispatches the tree observer.
+ */
+public class View {
+
+    public static final int VISIBLE = 0;
+    public static final int INVISIBLE = 4;
+    public static final int GONE = 8;
+
+    public static final int FOCUS_UP = 33;
+    public static final int FOCUS_DOWN = 130;
+    public static final int FOCUS_LEFT = 17;
+    public static final int FOCUS_RIGHT = 66;
+
+    public static final int OVER_SCROLL_ALWAYS = 0;
+    public static final int OVER_SCROLL_IF_CONTENT_SCROLLS = 1;
+    public static final int OVER_SCROLL_NEVER = 2;
+
+    public static final int LAYER_TYPE_NONE = 0;
+    public static final int LAYER_TYPE_SOFTWARE = 1;
+    public static final int LAYER_TYPE_HARDWARE = 2;
+
+    public interface OnTouchListener {
+        boolean onTouch(View v, MotionEvent event);
+    }
+
+    public interface OnScrollChangeListener {
+        void onScrollChange(View v, int scrollX, int scrollY, int oldScrollX, int oldScrollY);
+    }
+
+    public interface OnLayoutChangeListener {
+        void onLayoutChange(View v, int left, int top, int right, int bottom,
+                int oldLeft, int oldTop, int oldRight, int oldBottom);
+    }
+
+    public interface OnAttachStateChangeListener {
+        void onViewAttachedToWindow(View v);
+        void onViewDetachedFromWindow(View v);
+    }
+
+    public static class MeasureSpec {
+        private static final int MODE_SHIFT = 30;
+        private static final int MODE_MASK = 0x3 << MODE_SHIFT;
+
+        public static final int UNSPECIFIED = 0;
+        public static final int EXACTLY = 1 << MODE_SHIFT;
+        public static final int AT_MOST = 2 << MODE_SHIFT;
+
+        public static int makeMeasureSpec(int size, int mode) {
+            return (size & ~MODE_MASK) | (mode & MODE_MASK);
+        }
+
+        public static int getMode(int measureSpec) {
+            return measureSpec & MODE_MASK;
+        }
+
+        public static int getSize(int measureSpec) {
+            return measureSpec & ~MODE_MASK;
+        }
+    }
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final Context context;
+    ViewParent parent;
+    private ViewGroup.LayoutParams layoutParams;
+
+    private int left;
+    private int top;
+    private int right;
+    private int bottom;
+    private int measuredWidth;
+    private int measuredHeight;
+    private int minWidth;
+    private int minHeight;
+    private int paddingLeft;
+    private int paddingTop;
+    private int paddingRight;
+    private int paddingBottom;
+    private boolean layoutRequested = true;
+
+    private int scrollX;
+    private int scrollY;
+
+    private int visibility = VISIBLE;
+    private float translationX;
+    private float translationY;
+    private float translationZ;
+    private float alpha = 1f;
+    private float scaleX = 1f;
+    private float scaleY = 1f;
+    private int layerType = LAYER_TYPE_NONE;
+    private boolean verticalScrollBarEnabled = true;
+    private boolean horizontalScrollBarEnabled = true;
+    private boolean verticalFadingEdgeEnabled = false;
+    private boolean horizontalFadingEdgeEnabled = false;
+    private boolean scrollbarFadingEnabled = true;
+    private int overScrollMode = OVER_SCROLL_IF_CONTENT_SCROLLS;
+
+    private OnTouchListener touchListener;
+    private OnScrollChangeListener scrollChangeListener;
+    private final ArrayList<OnLayoutChangeListener> layoutChangeListeners = new ArrayList<OnLayoutChangeListener>();
+    private final ArrayList<OnAttachStateChangeListener> attachStateListeners =
+            new ArrayList<OnAttachStateChangeListener>();
+    private ViewPropertyAnimator animator;
+
+    /**
+     * Only set on the root of a window
+     */
+    private Activity window;
+    private ViewTreeObserver treeObserver;
+    private boolean scrollChangedInWindow;
+
+    public View(Context context) {
+        this.context = context;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public ViewParent getParent() {
+        return parent;
+    }
+
+    public View getRootView() {
+        View root = this;
+        while (root.parent instanceof View) {
+            root = (View) root.parent;
+        }
+        return root;
+    }
+
+    public ViewTreeObserver getViewTreeObserver() {
+        View root = getRootView();
+        if (root.treeObserver == null) {
+            root.treeObserver = new ViewTreeObserver();
+        }
+        return root.treeObserver;
+    }
+
+    public boolean isAttachedToWindow() {
+        return getRootView().window != null;
+    }
+
+    public boolean isHardwareAccelerated() {
+        return isAttachedToWindow();
+    }
+
+    /**
+     * Stand-in only: makes this view the root of the window of the activity
+     */
+    public void attachToWindow(Activity activity) {
+        window = activity;
+        requestLayout();
+        dispatchAttachedToWindow(this);
+    }
+
+    private static void dispatchAttachedToWindow(View view) {
+        for (int i = 0; i < view.attachStateListeners.size(); i++) {
+            view.attachStateListeners.get(i).onViewAttachedToWindow(view);
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                dispatchAttachedToWindow(group.getChildAt(i));
+            }
+        }
+    }
+
+    /**
+     * Called by the Choreographer on the root of a window after the frame callbacks
+     */
+    void performTraversal() {
+        if (window == null) {
+            return;
+        }
+        if (layoutRequested) {
+            Display display = window.getWindowManager().getDefaultDisplay();
+            measure(MeasureSpec.makeMeasureSpec(display.getWidth(), MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(display.getHeight(), MeasureSpec.EXACTLY));
+            layout(0, 0, getMeasuredWidth(), getMeasuredHeight());
+            getViewTreeObserver().dispatchOnGlobalLayout();
+        }
+        if (scrollChangedInWindow) {
+            scrollChangedInWindow = false;
+            getViewTreeObserver().dispatchOnScrollChanged();
+        }
+        getViewTreeObserver().dispatchOnPreDraw();
+    }
+
+    private void scheduleTraversal() {
+        View root = getRootView();
+        if (root.window != null) {
+            Choreographer.getInstance().scheduleTraversal(root);
+        }
+    }
+
+    // layout
+
+    public ViewGroup.LayoutParams getLayoutParams() {
+        return layoutParams;
+    }
+
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        layoutParams = params;
+        requestLayout();
+    }
+
+    public void requestLayout() {
+        layoutRequested = true;
+        if (parent instanceof View) {
+            ((View) parent).requestLayout();
+        } else {
+            scheduleTraversal();
+        }
+    }
+
+    public boolean isLayoutRequested() {
+        return layoutRequested;
+    }
+
+    public void invalidate() {
+        scheduleTraversal();
+    }
+
+    public final void measure(int widthMeasureSpec, int heightMeasureSpec) {
+        onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(minWidth, widthMeasureSpec),
+                getDefaultSize(minHeight, heightMeasureSpec));
+    }
+
+    protected final void setMeasuredDimension(int measuredWidth, int measuredHeight) {
+        this.measuredWidth = measuredWidth;
+        this.measuredHeight = measuredHeight;
+    }
+
+    public static int getDefaultSize(int size, int measureSpec) {
+        switch (MeasureSpec.getMode(measureSpec)) {
+            case MeasureSpec.AT_MOST:
+            case MeasureSpec.EXACTLY:
+                return MeasureSpec.getSize(measureSpec);
+            default:
+                return size;
+        }
+    }
+
+    public static int resolveSize(int size, int measureSpec) {
+        int specSize = MeasureSpec.getSize(measureSpec);
+        switch (MeasureSpec.getMode(measureSpec)) {
+            case MeasureSpec.AT_MOST:
+                return Math.min(size, specSize);
+            case MeasureSpec.EXACTLY:
+                return specSize;
+            default:
+                return size;
+        }
+    }
+
+    public void layout(int l, int t, int r, int b) {
+        int oldLeft = left;
+        int oldTop = top;
+        int oldRight = right;
+        int oldBottom = bottom;
+        boolean changed = l != left || t != top || r != right || b != bottom;
+        left = l;
+        top = t;
+        right = r;
+        bottom = b;
+        if (changed || layoutRequested) {
+            onLayout(changed, l, t, r, b);
+            for (int i = 0; i < layoutChangeListeners.size(); i++) {
+                layoutChangeListeners.get(i).onLayoutChange(this, l, t, r, b, oldLeft, oldTop, oldRight, oldBottom);
+            }
+        }
+        layoutRequested = false;
+    }
+
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    public int getWidth() {
+        return right - left;
+    }
+
+    public int getHeight() {
+        return bottom - top;
+    }
+
+    public int getMeasuredWidth() {
+        return measuredWidth;
+    }
+
+    public int getMeasuredHeight() {
+        return measuredHeight;
+    }
+
+    public void setMinimumWidth(int minWidth) {
+        this.minWidth = minWidth;
+        requestLayout();
+    }
+
+    public void setMinimumHeight(int minHeight) {
+        this.minHeight = minHeight;
+        requestLayout();
+    }
+
+    public void setPadding(int left, int top, int right, int bottom) {
+        if (left != paddingLeft || top != paddingTop || right != paddingRight || bottom != paddingBottom) {
+            paddingLeft = left;
+            paddingTop = top;
+            paddingRight = right;
+            paddingBottom = bottom;
+            requestLayout();
+        }
+    }
+
+    public int getPaddingLeft() {
+        return paddingLeft;
+    }
+
+    public int getPaddingTop() {
+        return paddingTop;
+    }
+
+    public int getPaddingRight() {
+        return paddingRight;
+    }
+
+    public int getPaddingBottom() {
+        return paddingBottom;
+    }
+
+    public void addOnLayoutChangeListener(OnLayoutChangeListener listener) {
+        if (!layoutChangeListeners.contains(listener)) {
+            layoutChangeListeners.add(listener);
+        }
+    }
+
+    public void removeOnLayoutChangeListener(OnLayoutChangeListener listener) {
+        layoutChangeListeners.remove(listener);
+    }
+
+    public void addOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        attachStateListeners.add(listener);
+    }
+
+    public void removeOnAttachStateChangeListener(OnAttachStateChangeListener listener) {
+        attachStateListeners.remove(listener);
+    }
+
+    // scrolling
+
+    public int getScrollX() {
+        return scrollX;
+    }
+
+    public int getScrollY() {
+        return scrollY;
+    }
+
+    public void scrollTo(int x, int y) {
+        if (x != scrollX || y != scrollY) {
+            int oldX = scrollX;
+            int oldY = scrollY;
+            scrollX = x;
+            scrollY = y;
+            onScrollChanged(x, y, oldX, oldY);
+            invalidate();
+        }
+    }
+
+    public void scrollBy(int x, int y) {
+        scrollTo(scrollX + x, scrollY + y);
+    }
+
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        getRootView().scrollChangedInWindow = true;
+        if (scrollChangeListener != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            scrollChangeListener.onScrollChange(this, l, t, oldl, oldt);
+        }
+    }
+
+    public void setOnScrollChangeListener(OnScrollChangeListener listener) {
+        scrollChangeListener = listener;
+    }
+
+    public void setVerticalScrollBarEnabled(boolean enabled) {
+        verticalScrollBarEnabled = enabled;
+    }
+
+    public boolean isVerticalScrollBarEnabled() {
+        return verticalScrollBarEnabled;
+    }
+
+    public void setHorizontalScrollBarEnabled(boolean enabled) {
+        horizontalScrollBarEnabled = enabled;
+    }
+
+    public boolean isHorizontalScrollBarEnabled() {
+        return horizontalScrollBarEnabled;
+    }
+
+    public void setVerticalFadingEdgeEnabled(boolean enabled) {
+        verticalFadingEdgeEnabled = enabled;
+    }
+
+    public boolean isVerticalFadingEdgeEnabled() {
+        return verticalFadingEdgeEnabled;
+    }
+
+    public void setHorizontalFadingEdgeEnabled(boolean enabled) {
+        horizontalFadingEdgeEnabled = enabled;
+    }
+
+    public boolean isHorizontalFadingEdgeEnabled() {
+        return horizontalFadingEdgeEnabled;
+    }
+
+    public void setScrollbarFadingEnabled(boolean enabled) {
+        scrollbarFadingEnabled = enabled;
+    }
+
+    public boolean isScrollbarFadingEnabled() {
+        return scrollbarFadingEnabled;
+    }
+
+    public void setOverScrollMode(int mode) {
+        overScrollMode = mode;
+    }
+
+    public int getOverScrollMode() {
+        return overScrollMode;
+    }
+
+    // touch
+
+    public void setOnTouchListener(OnTouchListener listener) {
+        touchListener = listener;
+    }
+
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        if (touchListener != null && visibility == VISIBLE && touchListener.onTouch(this, event)) {
+            return true;
+        }
+        return onTouchEvent(event);
+    }
+
+    public boolean onTouchEvent(MotionEvent event) {
+        return false;
+    }
+
+    // drawing state
+
+    public void setVisibility(int visibility) {
+        if (visibility != this.visibility) {
+            boolean relayout = visibility == GONE || this.visibility == GONE;
+            this.visibility = visibility;
+            if (relayout) {
+                requestLayout();
+            }
+            invalidate();
+        }
+    }
+
+    public int getVisibility() {
+        return visibility;
+    }
+
+    public void setTranslationX(float translationX) {
+        this.translationX = translationX;
+    }
+
+    public float getTranslationX() {
+        return translationX;
+    }
+
+    public void setTranslationY(float translationY) {
+        this.translationY = translationY;
+    }
+
+    public float getTranslationY() {
+        return translationY;
+    }
+
+    public void setTranslationZ(float translationZ) {
+        this.translationZ = translationZ;
+    }
+
+    public float getTranslationZ() {
+        return translationZ;
+    }
+
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public void setScaleX(float scaleX) {
+        this.scaleX = scaleX;
+    }
+
+    public float getScaleX() {
+        return scaleX;
+    }
+
+    public void setScaleY(float scaleY) {
+        this.scaleY = scaleY;
+    }
+
+    public float getScaleY() {
+        return scaleY;
+    }
+
+    public void setLayerType(int layerType, Paint paint) {
+        this.layerType = layerType;
+    }
+
+    public int getLayerType() {
+        return layerType;
+    }
+
+    public ViewPropertyAnimator animate() {
+        if (animator == null) {
+            animator = new ViewPropertyAnimator(this);
+        }
+        return animator;
+    }
+
+    // message queue
+
+    public boolean post(Runnable action) {
+        return MAIN_HANDLER.post(action);
+    }
+
+    public boolean postDelayed(Runnable action, long delayMillis) {
+        return MAIN_HANDLER.postDelayed(action, delayMillis);
+    }
+
+    public void postOnAnimation(Runnable action) {
+        MAIN_HANDLER.post(action);
+    }
+
+    public boolean removeCallbacks(Runnable action) {
+        MAIN_HANDLER.removeCallbacks(action);
+        return true;
+    }
+}
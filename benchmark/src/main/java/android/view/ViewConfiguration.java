@@ -0,0 +1,31 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * Stand-in: the values of a mdpi device
+ */
+public class ViewConfiguration {
+
+    private static final ViewConfiguration INSTANCE = new ViewConfiguration();
+
+    public static ViewConfiguration get(Context context) {
+        return INSTANCE;
+    }
+
+    public static float getScrollFriction() {
+        return 0.015f;
+    }
+
+    public int getScaledTouchSlop() {
+        return 8;
+    }
+
+    public int getScaledMinimumFlingVelocity() {
+        return 50;
+    }
+
+    public int getScaledMaximumFlingVelocity() {
+        return 8000;
+    }
+}
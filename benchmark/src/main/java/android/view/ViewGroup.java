@@ -0,0 +1,116 @@
+package android.view;
+
+import java.util.ArrayList;
+
+import android.content.Context;
+
+public abstract class ViewGroup extends View implements ViewParent {
+
+    public static class LayoutParams {
+        public static final int MATCH_PARENT = -1;
+        public static final int WRAP_CONTENT = -2;
+
+        public int width;
+        public int height;
+
+        public LayoutParams(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final ArrayList<View> children = new ArrayList<View>();
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public int getChildCount() {
+        return children.size();
+    }
+
+    public View getChildAt(int index) {
+        return index < 0 || index >= children.size() ? null : children.get(index);
+    }
+
+    public int indexOfChild(View child) {
+        return children.indexOf(child);
+    }
+
+    public void addView(View child) {
+        addView(child, -1);
+    }
+
+    public void addView(View child, int index) {
+        LayoutParams params = child.getLayoutParams();
+        addView(child, index, params != null ? params : generateDefaultLayoutParams());
+    }
+
+    public void addView(View child, LayoutParams params) {
+        addView(child, -1, params);
+    }
+
+    public void addView(View child, int index, LayoutParams params) {
+        if (child.parent != null) {
+            throw new IllegalStateException("The specified child already has a parent.");
+        }
+        child.parent = this;
+        child.setLayoutParams(params);
+        children.add(index < 0 ? children.size() : index, child);
+        requestLayout();
+    }
+
+    public void removeView(View child) {
+        int index = children.indexOf(child);
+        if (index >= 0) {
+            removeViewAt(index);
+        }
+    }
+
+    public void removeViewAt(int index) {
+        View child = children.remove(index);
+        child.parent = null;
+        requestLayout();
+    }
+
+    public void removeAllViews() {
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).parent = null;
+        }
+        children.clear();
+        requestLayout();
+    }
+
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    /**
+     * Same rules as the platform: the spec of a child from the spec of its parent and its layout params
+     */
+    public static int getChildMeasureSpec(int spec, int padding, int childDimension) {
+        int specMode = MeasureSpec.getMode(spec);
+        int size = Math.max(0, MeasureSpec.getSize(spec) - padding);
+        if (childDimension >= 0) {
+            return MeasureSpec.makeMeasureSpec(childDimension, MeasureSpec.EXACTLY);
+        }
+        switch (specMode) {
+            case MeasureSpec.EXACTLY:
+                return MeasureSpec.makeMeasureSpec(size, childDimension == LayoutParams.MATCH_PARENT
+                        ? MeasureSpec.EXACTLY : MeasureSpec.AT_MOST);
+            case MeasureSpec.AT_MOST:
+                return MeasureSpec.makeMeasureSpec(size, MeasureSpec.AT_MOST);
+            default:
+                return MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        }
+    }
+
+    protected void measureChild(View child, int parentWidthMeasureSpec, int parentHeightMeasureSpec) {
+        LayoutParams params = child.getLayoutParams();
+        child.measure(getChildMeasureSpec(parentWidthMeasureSpec, getPaddingLeft() + getPaddingRight(), params.width),
+                getChildMeasureSpec(parentHeightMeasureSpec, getPaddingTop() + getPaddingBottom(), params.height));
+    }
+
+    @Override
+    protected abstract void onLayout(boolean changed, int left, int top, int right, int bottom);
+}
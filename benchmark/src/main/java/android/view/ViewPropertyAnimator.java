@@ -0,0 +1,101 @@
+package android.view;
+
+/**
+ * Stand-in: animates the translation linearly on the frames of the Choreographer
+ */
+public class ViewPropertyAnimator {
+
+    private final View view;
+    private long durationMillis = 300;
+    private Runnable endAction;
+    private boolean animateX;
+    private boolean animateY;
+    private float fromX;
+    private float fromY;
+    private float toX;
+    private float toY;
+    private long startNanos;
+    private boolean running;
+
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+        }
+    };
+
+    ViewPropertyAnimator(View view) {
+        this.view = view;
+    }
+
+    public ViewPropertyAnimator translationX(float value) {
+        start();
+        animateX = true;
+        fromX = view.getTranslationX();
+        toX = value;
+        return this;
+    }
+
+    public ViewPropertyAnimator translationY(float value) {
+        start();
+        animateY = true;
+        fromY = view.getTranslationY();
+        toY = value;
+        return this;
+    }
+
+    public ViewPropertyAnimator setDuration(long duration) {
+        durationMillis = duration;
+        return this;
+    }
+
+    public ViewPropertyAnimator withEndAction(Runnable runnable) {
+        endAction = runnable;
+        return this;
+    }
+
+    public void cancel() {
+        if (running) {
+            running = false;
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+        animateX = false;
+        animateY = false;
+        endAction = null;
+    }
+
+    private void start() {
+        if (!running) {
+            running = true;
+            startNanos = 0;
+            endAction = null;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        if (startNanos == 0) {
+            startNanos = frameTimeNanos;
+        }
+        float fraction = durationMillis <= 0 ? 1f
+                : Math.min(1f, (frameTimeNanos - startNanos) / (durationMillis * 1000000f));
+        if (animateX) {
+            view.setTranslationX(fromX + (toX - fromX) * fraction);
+        }
+        if (animateY) {
+            view.setTranslationY(fromY + (toY - fromY) * fraction);
+        }
+        if (fraction < 1f) {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+            return;
+        }
+        running = false;
+        animateX = false;
+        animateY = false;
+        Runnable action = endAction;
+        endAction = null;
+        if (action != null) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package android.view;
+
+import java.util.Arrays;
+
+/**
+ * Stand-in: one per window root. Listeners are kept copy-on-write, so that dispatching does not allocate
+ * and a listener may remove itself while being called.
+ */
+public final class ViewTreeObserver {
+
+    public interface OnScrollChangedListener {
+        void onScrollChanged();
+    }
+
+    public interface OnGlobalLayoutListener {
+        void onGlobalLayout();
+    }
+
+    public interface OnPreDrawListener {
+        boolean onPreDraw();
+    }
+
+    private OnScrollChangedListener[] scrollChangedListeners = new OnScrollChangedListener[0];
+    private OnGlobalLayoutListener[] globalLayoutListeners = new OnGlobalLayoutListener[0];
+    private OnPreDrawListener[] preDrawListeners = new OnPreDrawListener[0];
+
+    ViewTreeObserver() {
+    }
+
+    public boolean isAlive() {
+        return true;
+    }
+
+    public void addOnScrollChangedListener(OnScrollChangedListener listener) {
+        scrollChangedListeners = added(scrollChangedListeners, listener);
+    }
+
+    public void removeOnScrollChangedListener(OnScrollChangedListener listener) {
+        scrollChangedListeners = removed(scrollChangedListeners, listener);
+    }
+
+    public void addOnGlobalLayoutListener(OnGlobalLayoutListener listener) {
+        globalLayoutListeners = added(globalLayoutListeners, listener);
+    }
+
+    public void removeOnGlobalLayoutListener(OnGlobalLayoutListener listener) {
+        globalLayoutListeners = removed(globalLayoutListeners, listener);
+    }
+
+    public void addOnPreDrawListener(OnPreDrawListener listener) {
+        preDrawListeners = added(preDrawListeners, listener);
+    }
+
+    public void removeOnPreDrawListener(OnPreDrawListener listener) {
+        preDrawListeners = removed(preDrawListeners, listener);
+    }
+
+    void dispatchOnScrollChanged() {
+        OnScrollChangedListener[] listeners = scrollChangedListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onScrollChanged();
+        }
+    }
+
+    void dispatchOnGlobalLayout() {
+        OnGlobalLayoutListener[] listeners = globalLayoutListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onGlobalLayout();
+        }
+    }
+
+    /**
+     * @return false if a listener cancelled the draw
+     */
+    boolean dispatchOnPreDraw() {
+        boolean draw = true;
+        OnPreDrawListener[] listeners = preDrawListeners;
+        for (int i = 0; i < listeners.length; i++) {
+            draw &= listeners[i].onPreDraw();
+        }
+        return draw;
+    }
+
+    private static <T> T[] added(T[] listeners, T listener) {
+        T[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        return copy;
+    }
+
+    private static <T> T[] removed(T[] listeners, T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                T[] copy = Arrays.copyOf(listeners, listeners.length - 1);
+                System.arraycopy(listeners, i + 1, copy, i, listeners.length - i - 1);
+                return copy;
+            }
+        }
+        return listeners;
+    }
+}
@@ -0,0 +1,88 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * Stand-in: scrolls its only child, see ScrollDriver
+ */
+public class HorizontalScrollView extends FrameLayout {
+
+    private final ScrollDriver driver;
+
+    public HorizontalScrollView(Context context) {
+        super(context);
+        driver = new ScrollDriver(this, false);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        View child = getChildAt(0);
+        if (child != null) {
+            // the child takes all the room it wants along the scrolling axis
+            LayoutParams params = child.getLayoutParams();
+            child.measure(MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
+                    getChildMeasureSpec(heightMeasureSpec, getPaddingTop() + getPaddingBottom(), params.height));
+        }
+        setMeasuredDimension(getDefaultSize(0, widthMeasureSpec), getDefaultSize(0, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        View child = getChildAt(0);
+        if (child != null) {
+            child.layout(getPaddingLeft(), getPaddingTop(),
+                    getPaddingLeft() + child.getMeasuredWidth(), getPaddingTop() + child.getMeasuredHeight());
+        }
+        // the content may have shrunk
+        scrollTo(getScrollX(), getScrollY());
+    }
+
+    @Override
+    public void scrollTo(int x, int y) {
+        super.scrollTo(driver.clamp(x), y);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return driver.onTouchEvent(event);
+    }
+
+    public void smoothScrollBy(int dx, int dy) {
+        driver.smoothScrollBy(dx);
+    }
+
+    public void smoothScrollTo(int x, int y) {
+        smoothScrollBy(x - getScrollX(), y - getScrollY());
+    }
+
+    public void fling(int velocityX) {
+        driver.fling(velocityX);
+    }
+
+    public boolean fullScroll(int direction) {
+        int target = direction == FOCUS_RIGHT ? driver.range() : 0;
+        driver.smoothScrollBy(target - getScrollX());
+        return true;
+    }
+
+    public boolean pageScroll(int direction) {
+        driver.smoothScrollBy(direction == FOCUS_RIGHT ? getWidth() : -getWidth());
+        return true;
+    }
+
+    public boolean arrowScroll(int direction) {
+        // nothing focusable, moves by the maximum scroll amount like the platform
+        int amount = getWidth() / 2;
+        driver.smoothScrollBy(direction == FOCUS_RIGHT ? amount : -amount);
+        return true;
+    }
+
+    /**
+     * Stand-in only: whether the scroller is still moving
+     */
+    public boolean isFlinging() {
+        return driver.isFlinging();
+    }
+}
@@ -0,0 +1,90 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Stand-in: lays the children out one after the other, without weights or gravity
+ */
+public class LinearLayout extends ViewGroup {
+
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+
+    private int orientation = HORIZONTAL;
+
+    public LinearLayout(Context context) {
+        super(context);
+    }
+
+    public int getOrientation() {
+        return orientation;
+    }
+
+    public void setOrientation(int orientation) {
+        if (orientation != this.orientation) {
+            this.orientation = orientation;
+            requestLayout();
+        }
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return orientation == VERTICAL
+                ? new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT)
+                : new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        boolean vertical = orientation == VERTICAL;
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        int verticalPadding = getPaddingTop() + getPaddingBottom();
+        int total = 0;
+        int cross = 0;
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+            ViewGroup.LayoutParams params = child.getLayoutParams();
+            if (vertical) {
+                child.measure(getChildMeasureSpec(widthMeasureSpec, horizontalPadding, params.width),
+                        getChildMeasureSpec(heightMeasureSpec, verticalPadding + total, params.height));
+                total += child.getMeasuredHeight();
+                cross = Math.max(cross, child.getMeasuredWidth());
+            } else {
+                child.measure(getChildMeasureSpec(widthMeasureSpec, horizontalPadding + total, params.width),
+                        getChildMeasureSpec(heightMeasureSpec, verticalPadding, params.height));
+                total += child.getMeasuredWidth();
+                cross = Math.max(cross, child.getMeasuredHeight());
+            }
+        }
+        if (vertical) {
+            setMeasuredDimension(resolveSize(cross + horizontalPadding, widthMeasureSpec),
+                    resolveSize(total + verticalPadding, heightMeasureSpec));
+        } else {
+            setMeasuredDimension(resolveSize(total + horizontalPadding, widthMeasureSpec),
+                    resolveSize(cross + verticalPadding, heightMeasureSpec));
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        int x = getPaddingLeft();
+        int y = getPaddingTop();
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child.getVisibility() == GONE) {
+                continue;
+            }
+            child.layout(x, y, x + child.getMeasuredWidth(), y + child.getMeasuredHeight());
+            if (orientation == VERTICAL) {
+                y += child.getMeasuredHeight();
+            } else {
+                x += child.getMeasuredWidth();
+            }
+        }
+    }
+}
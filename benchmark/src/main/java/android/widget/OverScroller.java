@@ -0,0 +1,149 @@
+package android.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+/**
+ * Stand-in: flings decelerate at a constant rate and stop at the bounds,
+ * startScroll eases out over its duration. Time is SystemClock.uptimeMillis().
+ */
+public class OverScroller {
+
+    private static final int DEFAULT_DURATION = 250;
+    /**
+     * px/s^2, a fling at 4000 px/s travels 2500 px
+     */
+    private static final float DECELERATION = 3200f;
+
+    private final Axis x = new Axis();
+    private final Axis y = new Axis();
+
+    public OverScroller(Context context) {
+    }
+
+    public void startScroll(int startX, int startY, int dx, int dy) {
+        startScroll(startX, startY, dx, dy, DEFAULT_DURATION);
+    }
+
+    public void startScroll(int startX, int startY, int dx, int dy, int duration) {
+        long now = SystemClock.uptimeMillis();
+        x.startScroll(startX, dx, duration, now);
+        y.startScroll(startY, dy, duration, now);
+    }
+
+    public void fling(int startX, int startY, int velocityX, int velocityY, int minX, int maxX, int minY, int maxY) {
+        long now = SystemClock.uptimeMillis();
+        x.fling(startX, velocityX, minX, maxX, now);
+        y.fling(startY, velocityY, minY, maxY, now);
+    }
+
+    public void fling(int startX, int startY, int velocityX, int velocityY, int minX, int maxX, int minY, int maxY,
+            int overX, int overY) {
+        fling(startX, startY, velocityX, velocityY, minX, maxX, minY, maxY);
+    }
+
+    /**
+     * @return true if the animation was still running, the current position is then updated
+     */
+    public boolean computeScrollOffset() {
+        if (isFinished()) {
+            return false;
+        }
+        long now = SystemClock.uptimeMillis();
+        x.update(now);
+        y.update(now);
+        return true;
+    }
+
+    public int getCurrX() {
+        return x.current;
+    }
+
+    public int getCurrY() {
+        return y.current;
+    }
+
+    public int getFinalX() {
+        return x.end;
+    }
+
+    public int getFinalY() {
+        return y.end;
+    }
+
+    public boolean isFinished() {
+        return x.finished && y.finished;
+    }
+
+    public void forceFinished(boolean finished) {
+        x.finished = finished;
+        y.finished = finished;
+    }
+
+    public void abortAnimation() {
+        x.current = x.end;
+        y.current = y.end;
+        forceFinished(true);
+    }
+
+    private static final class Axis {
+        int start;
+        int current;
+        int end;
+        long startTime;
+        long duration;
+        boolean fling;
+        float velocity;
+        boolean finished = true;
+
+        void startScroll(int start, int delta, int duration, long now) {
+            this.start = start;
+            current = start;
+            end = start + delta;
+            startTime = now;
+            this.duration = Math.max(1, duration);
+            fling = false;
+            finished = false;
+        }
+
+        void fling(int start, int velocity, int min, int max, long now) {
+            this.start = start;
+            current = start;
+            this.velocity = velocity;
+            float distance = Math.signum(velocity) * velocity * (float) velocity / (2 * DECELERATION);
+            end = Math.max(min, Math.min(max, Math.round(start + distance)));
+            startTime = now;
+            duration = Math.round(Math.abs(velocity) / DECELERATION * 1000);
+            fling = true;
+            finished = velocity == 0 || end == start;
+        }
+
+        void update(long now) {
+            if (finished) {
+                return;
+            }
+            long elapsed = now - startTime;
+            if (elapsed >= duration) {
+                current = end;
+                finished = true;
+                return;
+            }
+            float t = elapsed / 1000f;
+            int position;
+            if (fling) {
+                float travelled = Math.abs(velocity) * t - DECELERATION * t * t / 2;
+                position = Math.round(start + Math.signum(velocity) * travelled);
+                if ((end - position) * Math.signum(velocity) <= 0) {
+                    // stopped at a bound
+                    current = end;
+                    finished = true;
+                    return;
+                }
+            } else {
+                float fraction = (float) elapsed / duration;
+                position = Math.round(start + (end - start) * (1 - (1 - fraction) * (1 - fraction)));
+            }
+            current = position;
+        }
+    }
+}
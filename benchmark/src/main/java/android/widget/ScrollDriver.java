@@ -0,0 +1,203 @@
+package android.widget;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+/**
+ * The scrolling shared by the ScrollView and HorizontalScrollView stand-ins, following the platform:
+ * dragging past the touch slop, flinging on release, smoothScrollBy animating only if the previous one
+ * is older than 250 ms (and jumping otherwise), and the scroller applied on every frame.
+ */
+final class ScrollDriver {
+
+    private static final int ANIMATED_SCROLL_GAP = 250;
+
+    private final FrameLayout view;
+    private final boolean vertical;
+    private final OverScroller scroller;
+    private long lastScroll = 0;
+
+    private VelocityTracker velocityTracker;
+    private boolean beingDragged = false;
+    private int activePointerId = -1;
+    private float lastMotion;
+
+    private boolean framePosted = false;
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            framePosted = false;
+            computeScroll();
+        }
+    };
+
+    ScrollDriver(FrameLayout view, boolean vertical) {
+        this.view = view;
+        this.vertical = vertical;
+        this.scroller = new OverScroller(view.getContext());
+    }
+
+    private int scroll() {
+        return vertical ? view.getScrollY() : view.getScrollX();
+    }
+
+    private void scrollTo(int position) {
+        if (vertical) {
+            view.scrollTo(view.getScrollX(), position);
+        } else {
+            view.scrollTo(position, view.getScrollY());
+        }
+    }
+
+    int range() {
+        if (view.getChildCount() == 0) {
+            return 0;
+        }
+        View child = view.getChildAt(0);
+        int viewport = vertical ? view.getHeight() - view.getPaddingTop() - view.getPaddingBottom()
+                : view.getWidth() - view.getPaddingLeft() - view.getPaddingRight();
+        return Math.max(0, (vertical ? child.getHeight() : child.getWidth()) - viewport);
+    }
+
+    int clamp(int position) {
+        return Math.max(0, Math.min(range(), position));
+    }
+
+    void smoothScrollBy(int delta) {
+        if (view.getChildCount() == 0) {
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        if (now - lastScroll > ANIMATED_SCROLL_GAP) {
+            int start = scroll();
+            int distance = clamp(start + delta) - start;
+            if (vertical) {
+                scroller.startScroll(view.getScrollX(), start, 0, distance);
+            } else {
+                scroller.startScroll(start, view.getScrollY(), distance, 0);
+            }
+            postFrame();
+        } else {
+            if (!scroller.isFinished()) {
+                scroller.abortAnimation();
+            }
+            scrollTo(clamp(scroll() + delta));
+        }
+        lastScroll = now;
+    }
+
+    void fling(int velocity) {
+        if (view.getChildCount() == 0) {
+            return;
+        }
+        if (vertical) {
+            scroller.fling(view.getScrollX(), view.getScrollY(), 0, velocity, 0, 0, 0, range());
+        } else {
+            scroller.fling(view.getScrollX(), view.getScrollY(), velocity, 0, 0, range(), 0, 0);
+        }
+        postFrame();
+    }
+
+    private void postFrame() {
+        if (!framePosted) {
+            framePosted = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            int position = vertical ? scroller.getCurrY() : scroller.getCurrX();
+            if (position != scroll()) {
+                scrollTo(clamp(position));
+            }
+            postFrame();
+        }
+    }
+
+    boolean onTouchEvent(MotionEvent event) {
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        velocityTracker.addMovement(event);
+        ViewConfiguration configuration = ViewConfiguration.get(view.getContext());
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                // catching a fling keeps dragging
+                beingDragged = !scroller.isFinished();
+                if (!scroller.isFinished()) {
+                    scroller.abortAnimation();
+                }
+                activePointerId = event.getPointerId(0);
+                lastMotion = pointer(event, 0);
+                break;
+            case MotionEvent.ACTION_MOVE: {
+                int index = event.findPointerIndex(activePointerId);
+                if (index < 0) {
+                    break;
+                }
+                float position = pointer(event, index);
+                int delta = (int) (lastMotion - position);
+                int slop = configuration.getScaledTouchSlop();
+                if (!beingDragged && Math.abs(delta) > slop) {
+                    beingDragged = true;
+                    delta += delta > 0 ? -slop : slop;
+                }
+                if (beingDragged) {
+                    lastMotion = position;
+                    scrollTo(clamp(scroll() + delta));
+                }
+                break;
+            }
+            case MotionEvent.ACTION_UP:
+                if (beingDragged) {
+                    velocityTracker.computeCurrentVelocity(1000, configuration.getScaledMaximumFlingVelocity());
+                    int velocity = (int) (vertical ? velocityTracker.getYVelocity(activePointerId)
+                            : velocityTracker.getXVelocity(activePointerId));
+                    if (Math.abs(velocity) > configuration.getScaledMinimumFlingVelocity()) {
+                        fling(-velocity);
+                    }
+                }
+                endDrag();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                endDrag();
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN: {
+                int index = event.getActionIndex();
+                activePointerId = event.getPointerId(index);
+                lastMotion = pointer(event, index);
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP: {
+                int index = event.getActionIndex();
+                if (event.getPointerId(index) == activePointerId) {
+                    int next = index == 0 ? 1 : 0;
+                    activePointerId = event.getPointerId(next);
+                    lastMotion = pointer(event, next);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        return true;
+    }
+
+    private void endDrag() {
+        beingDragged = false;
+        activePointerId = -1;
+    }
+
+    private float pointer(MotionEvent event, int index) {
+        return vertical ? event.getY(index) : event.getX(index);
+    }
+
+    boolean isFlinging() {
+        return !scroller.isFinished();
+    }
+}
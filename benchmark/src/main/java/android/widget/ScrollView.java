@@ -0,0 +1,88 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * Stand-in: scrolls its only child, see ScrollDriver
+ */
+public class ScrollView extends FrameLayout {
+
+    private final ScrollDriver driver;
+
+    public ScrollView(Context context) {
+        super(context);
+        driver = new ScrollDriver(this, true);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        View child = getChildAt(0);
+        if (child != null) {
+            // the child takes all the room it wants along the scrolling axis
+            LayoutParams params = child.getLayoutParams();
+            child.measure(getChildMeasureSpec(widthMeasureSpec, getPaddingLeft() + getPaddingRight(), params.width),
+                    MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        }
+        setMeasuredDimension(getDefaultSize(0, widthMeasureSpec), getDefaultSize(0, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        View child = getChildAt(0);
+        if (child != null) {
+            child.layout(getPaddingLeft(), getPaddingTop(),
+                    getPaddingLeft() + child.getMeasuredWidth(), getPaddingTop() + child.getMeasuredHeight());
+        }
+        // the content may have shrunk
+        scrollTo(getScrollX(), getScrollY());
+    }
+
+    @Override
+    public void scrollTo(int x, int y) {
+        super.scrollTo(x, driver.clamp(y));
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return driver.onTouchEvent(event);
+    }
+
+    public void smoothScrollBy(int dx, int dy) {
+        driver.smoothScrollBy(dy);
+    }
+
+    public void smoothScrollTo(int x, int y) {
+        smoothScrollBy(x - getScrollX(), y - getScrollY());
+    }
+
+    public void fling(int velocityY) {
+        driver.fling(velocityY);
+    }
+
+    public boolean fullScroll(int direction) {
+        int target = direction == FOCUS_DOWN ? driver.range() : 0;
+        driver.smoothScrollBy(target - getScrollY());
+        return true;
+    }
+
+    public boolean pageScroll(int direction) {
+        driver.smoothScrollBy(direction == FOCUS_DOWN ? getHeight() : -getHeight());
+        return true;
+    }
+
+    public boolean arrowScroll(int direction) {
+        // nothing focusable, moves by the maximum scroll amount like the platform
+        int amount = getHeight() / 2;
+        driver.smoothScrollBy(direction == FOCUS_DOWN ? amount : -amount);
+        return true;
+    }
+
+    /**
+     * Stand-in only: whether the scroller is still moving
+     */
+    public boolean isFlinging() {
+        return driver.isFlinging();
+    }
+}
@@ -0,0 +1,18 @@
+package com.google.appinventor.components.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.google.appinventor.components.common.ComponentCategory;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DesignerComponent {
+    int version();
+    String description() default "";
+    ComponentCategory category();
+    boolean nonVisible() default false;
+    String iconName() default "";
+}
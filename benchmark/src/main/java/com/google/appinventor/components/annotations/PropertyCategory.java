@@ -0,0 +1,7 @@
+package com.google.appinventor.components.annotations;
+
+public enum PropertyCategory {
+    APPEARANCE,
+    BEHAVIOR,
+    UNSET
+}
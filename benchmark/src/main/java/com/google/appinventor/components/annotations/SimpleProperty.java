@@ -0,0 +1,14 @@
+package com.google.appinventor.components.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SimpleProperty {
+    String description() default "";
+    PropertyCategory category() default PropertyCategory.UNSET;
+    boolean userVisible() default true;
+}
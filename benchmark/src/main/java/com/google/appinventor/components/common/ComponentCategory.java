@@ -0,0 +1,5 @@
+package com.google.appinventor.components.common;
+
+public enum ComponentCategory {
+    EXTENSION
+}
@@ -0,0 +1,14 @@
+package com.google.appinventor.components.common;
+
+public final class PropertyTypeConstants {
+    public static final String PROPERTY_TYPE_BOOLEAN = "boolean";
+    public static final String PROPERTY_TYPE_CHOICES = "choices";
+    public static final String PROPERTY_TYPE_FLOAT = "float";
+    public static final String PROPERTY_TYPE_INTEGER = "integer";
+    public static final String PROPERTY_TYPE_NON_NEGATIVE_FLOAT = "non_negative_float";
+    public static final String PROPERTY_TYPE_NON_NEGATIVE_INTEGER = "non_negative_integer";
+    public static final String PROPERTY_TYPE_STRING = "string";
+
+    private PropertyTypeConstants() {
+    }
+}
@@ -0,0 +1,14 @@
+package com.google.appinventor.components.runtime;
+
+public abstract class AndroidNonvisibleComponent implements Component {
+
+    protected final Form form;
+
+    protected AndroidNonvisibleComponent(Form form) {
+        this.form = form;
+    }
+
+    public HandlesEventDispatching getDispatchDelegate() {
+        return form;
+    }
+}
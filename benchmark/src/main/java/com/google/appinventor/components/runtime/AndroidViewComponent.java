@@ -0,0 +1,60 @@
+package com.google.appinventor.components.runtime;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Stand-in: sizes are in px (dp), -1 for automatic and -2 for fill parent like in the designer
+ */
+public abstract class AndroidViewComponent implements Component {
+
+    public static final int LENGTH_PREFERRED = -1;
+    public static final int LENGTH_FILL_PARENT = -2;
+
+    protected final ComponentContainer container;
+
+    protected AndroidViewComponent(ComponentContainer container) {
+        this.container = container;
+    }
+
+    public abstract View getView();
+
+    public Form $form() {
+        return container.$form();
+    }
+
+    public void Visible(boolean visible) {
+        getView().setVisibility(visible ? View.VISIBLE : View.GONE);
+    }
+
+    public boolean Visible() {
+        return getView().getVisibility() == View.VISIBLE;
+    }
+
+    public void Width(int width) {
+        ViewGroup.LayoutParams params = layoutParams();
+        params.width = length(width);
+        getView().setLayoutParams(params);
+    }
+
+    public void Height(int height) {
+        ViewGroup.LayoutParams params = layoutParams();
+        params.height = length(height);
+        getView().setLayoutParams(params);
+    }
+
+    private ViewGroup.LayoutParams layoutParams() {
+        ViewGroup.LayoutParams params = getView().getLayoutParams();
+        return params != null ? params
+                : new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    private int length(int px) {
+        if (px == LENGTH_FILL_PARENT) {
+            return ViewGroup.LayoutParams.MATCH_PARENT;
+        } else if (px < 0) {
+            return ViewGroup.LayoutParams.WRAP_CONTENT;
+        }
+        return Math.round(px * $form().deviceDensity());
+    }
+}
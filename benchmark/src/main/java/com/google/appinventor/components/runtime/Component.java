@@ -0,0 +1,4 @@
+package com.google.appinventor.components.runtime;
+
+public interface Component {
+}
@@ -0,0 +1,9 @@
+package com.google.appinventor.components.runtime;
+
+import android.app.Activity;
+
+public interface ComponentContainer {
+    Activity $context();
+    Form $form();
+    void $add(AndroidViewComponent component);
+}
@@ -0,0 +1,85 @@
+package com.google.appinventor.components.runtime;
+
+import java.util.HashMap;
+
+/**
+ * Stand-in: counts the events per name and keeps the arguments of the last one.
+ * A Block stands for the blocks of the app and runs on every event.
+ */
+public final class EventDispatcher {
+
+    public interface Block {
+        void run(Component component, String eventName, Object[] args);
+    }
+
+    private static final HashMap<String, Event> EVENTS = new HashMap<String, Event>();
+    private static Block block = null;
+    private static long total = 0;
+
+    private EventDispatcher() {
+    }
+
+    public static boolean dispatchEvent(Component component, String eventName, Object... args) {
+        HandlesEventDispatching delegate = component instanceof AndroidNonvisibleComponent
+                ? ((AndroidNonvisibleComponent) component).getDispatchDelegate() : null;
+        if (delegate != null && !delegate.canDispatchEvent(component, eventName)) {
+            return false;
+        }
+        Event event = EVENTS.get(eventName);
+        if (event == null) {
+            event = new Event();
+            EVENTS.put(eventName, event);
+        }
+        event.count++;
+        event.lastArgs = args;
+        total++;
+        if (block != null) {
+            block.run(component, eventName, args);
+        }
+        return true;
+    }
+
+    /**
+     * Stand-in only
+     */
+    public static void setBlock(Block block) {
+        EventDispatcher.block = block;
+    }
+
+    /**
+     * Stand-in only
+     */
+    public static int count(String eventName) {
+        Event event = EVENTS.get(eventName);
+        return event == null ? 0 : event.count;
+    }
+
+    /**
+     * Stand-in only: the arguments of the last event of that name, null if none was raised
+     */
+    public static Object[] lastArgs(String eventName) {
+        Event event = EVENTS.get(eventName);
+        return event == null ? null : event.lastArgs;
+    }
+
+    /**
+     * Stand-in only: the number of events raised so far
+     */
+    public static long total() {
+        return total;
+    }
+
+    /**
+     * Stand-in only
+     */
+    public static void reset() {
+        EVENTS.clear();
+        block = null;
+        total = 0;
+    }
+
+    private static final class Event {
+        int count;
+        Object[] lastArgs;
+    }
+}
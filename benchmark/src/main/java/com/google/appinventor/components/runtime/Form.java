@@ -0,0 +1,88 @@
+package com.google.appinventor.components.runtime;
+
+import java.util.ArrayList;
+
+import android.app.Activity;
+import android.widget.LinearLayout;
+
+/**
+ * Stand-in: a screen laying its components out vertically, attached to the window on creation
+ */
+public class Form extends Activity implements Component, ComponentContainer, HandlesEventDispatching {
+
+    private final LinearLayout root;
+    private float deviceDensity = 1f;
+    private final ArrayList<OnPauseListener> onPauseListeners = new ArrayList<OnPauseListener>();
+    private final ArrayList<OnResumeListener> onResumeListeners = new ArrayList<OnResumeListener>();
+    private final ArrayList<OnDestroyListener> onDestroyListeners = new ArrayList<OnDestroyListener>();
+
+    public Form() {
+        root = new LinearLayout(this);
+        root.setOrientation(LinearLayout.VERTICAL);
+        setContentView(root);
+    }
+
+    public float deviceDensity() {
+        return deviceDensity;
+    }
+
+    /**
+     * Stand-in only
+     */
+    public void setDeviceDensity(float density) {
+        deviceDensity = density;
+    }
+
+    @Override
+    public Activity $context() {
+        return this;
+    }
+
+    @Override
+    public Form $form() {
+        return this;
+    }
+
+    @Override
+    public void $add(AndroidViewComponent component) {
+        root.addView(component.getView());
+    }
+
+    @Override
+    public boolean canDispatchEvent(Component component, String eventName) {
+        return true;
+    }
+
+    public void registerForOnPause(OnPauseListener listener) {
+        onPauseListeners.add(listener);
+    }
+
+    public void registerForOnResume(OnResumeListener listener) {
+        onResumeListeners.add(listener);
+    }
+
+    public void registerForOnDestroy(OnDestroyListener listener) {
+        onDestroyListeners.add(listener);
+    }
+
+    /**
+     * Stand-in only: runs the listeners like the activity callback
+     */
+    public void onPause() {
+        for (int i = 0; i < onPauseListeners.size(); i++) {
+            onPauseListeners.get(i).onPause();
+        }
+    }
+
+    public void onResume() {
+        for (int i = 0; i < onResumeListeners.size(); i++) {
+            onResumeListeners.get(i).onResume();
+        }
+    }
+
+    public void onDestroy() {
+        for (int i = 0; i < onDestroyListeners.size(); i++) {
+            onDestroyListeners.get(i).onDestroy();
+        }
+    }
+}
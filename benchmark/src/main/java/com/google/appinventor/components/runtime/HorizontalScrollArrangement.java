@@ -0,0 +1,46 @@
+package com.google.appinventor.components.runtime;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.HorizontalScrollView;
+
+/**
+ * Stand-in: a HorizontalScrollView holding the LinearLayout its components are added to
+ */
+public class HorizontalScrollArrangement extends AndroidViewComponent implements ComponentContainer {
+
+    private final HorizontalScrollView scrollView;
+    private final LinearLayout layout;
+
+    public HorizontalScrollArrangement(ComponentContainer container) {
+        super(container);
+        scrollView = new HorizontalScrollView(container.$context());
+        layout = new LinearLayout(container.$context());
+        layout.setOrientation(LinearLayout.HORIZONTAL);
+        scrollView.addView(layout, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        container.$add(this);
+    }
+
+    @Override
+    public View getView() {
+        return scrollView;
+    }
+
+    @Override
+    public Activity $context() {
+        return container.$context();
+    }
+
+    @Override
+    public Form $form() {
+        return container.$form();
+    }
+
+    @Override
+    public void $add(AndroidViewComponent component) {
+        layout.addView(component.getView());
+    }
+}
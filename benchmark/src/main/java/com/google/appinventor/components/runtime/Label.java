@@ -0,0 +1,22 @@
+package com.google.appinventor.components.runtime;
+
+import android.view.View;
+
+/**
+ * Stand-in: an empty view to give the arrangements some content
+ */
+public class Label extends AndroidViewComponent {
+
+    private final View view;
+
+    public Label(ComponentContainer container) {
+        super(container);
+        view = new View(container.$context());
+        container.$add(this);
+    }
+
+    @Override
+    public View getView() {
+        return view;
+    }
+}
@@ -0,0 +1,5 @@
+package com.google.appinventor.components.runtime;
+
+public interface OnPauseListener {
+    void onPause();
+}
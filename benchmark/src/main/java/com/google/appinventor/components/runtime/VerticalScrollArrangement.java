@@ -0,0 +1,46 @@
+package com.google.appinventor.components.runtime;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+
+/**
+ * Stand-in: a ScrollView holding the LinearLayout its components are added to
+ */
+public class VerticalScrollArrangement extends AndroidViewComponent implements ComponentContainer {
+
+    private final ScrollView scrollView;
+    private final LinearLayout layout;
+
+    public VerticalScrollArrangement(ComponentContainer container) {
+        super(container);
+        scrollView = new ScrollView(container.$context());
+        layout = new LinearLayout(container.$context());
+        layout.setOrientation(LinearLayout.VERTICAL);
+        scrollView.addView(layout, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+        container.$add(this);
+    }
+
+    @Override
+    public View getView() {
+        return scrollView;
+    }
+
+    @Override
+    public Activity $context() {
+        return container.$context();
+    }
+
+    @Override
+    public Form $form() {
+        return container.$form();
+    }
+
+    @Override
+    public void $add(AndroidViewComponent component) {
+        layout.addView(component.getView());
+    }
+}
@@ -0,0 +1,48 @@
+package com.google.appinventor.components.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stand-in: only the items, without the list header of the real one
+ */
+public class YailList extends ArrayList<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    public YailList() {
+    }
+
+    private YailList(List<?> items) {
+        super(items);
+    }
+
+    public static YailList makeEmptyList() {
+        return new YailList();
+    }
+
+    public static YailList makeList(List<?> items) {
+        return new YailList(items);
+    }
+
+    public static YailList makeList(Object[] items) {
+        return new YailList(Arrays.asList(items));
+    }
+
+    public Object getObject(int index) {
+        return get(index);
+    }
+
+    public int length() {
+        return size();
+    }
+
+    public String[] toStringArray() {
+        String[] strings = new String[size()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = String.valueOf(get(i));
+        }
+        return strings;
+    }
+}
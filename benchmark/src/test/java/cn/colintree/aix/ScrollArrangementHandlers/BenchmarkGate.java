@@ -0,0 +1,148 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs ScrollBenchmark and compares every score with the baseline file given as the only argument,
+ * exiting with 1 if one of them regressed beyond the tolerance of the file.
+ * With -Dbaseline.update=true the scores are written to the file instead.
+ * <p>
+ * Keys are &lt;benchmark&gt;.&lt;axis&gt;.time in ns per operation
+ * and &lt;benchmark&gt;.&lt;axis&gt;.alloc in bytes allocated per operation.
+ * A time regresses when it is more than tolerance.time times the baseline,
+ * an allocation when it is more than tolerance.alloc bytes above the baseline.
+ */
+public final class BenchmarkGate {
+
+    private static final String TIME_TOLERANCE = "tolerance.time";
+    private static final String ALLOC_TOLERANCE = "tolerance.alloc";
+    private static final String DEFAULT_TIME_TOLERANCE = "3";
+    private static final String DEFAULT_ALLOC_TOLERANCE = "16";
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        if (args.length != 1) {
+            System.err.println("usage: BenchmarkGate <baseline.properties>");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        Map<String, Double> scores = run();
+        if (Boolean.getBoolean("baseline.update")) {
+            Properties previous = baselineFile.exists() ? load(baselineFile) : new Properties();
+            write(baselineFile, scores, previous.getProperty(TIME_TOLERANCE, DEFAULT_TIME_TOLERANCE),
+                    previous.getProperty(ALLOC_TOLERANCE, DEFAULT_ALLOC_TOLERANCE));
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+        if (!baselineFile.exists()) {
+            System.err.println("No baseline at " + baselineFile + ", record one with -Dbaseline.update=true");
+            System.exit(1);
+        }
+        List<String> regressions = compare(scores, load(baselineFile));
+        if (!regressions.isEmpty()) {
+            System.err.println("Benchmark regressions against " + baselineFile + ":");
+            for (String regression : regressions) {
+                System.err.println("  " + regression);
+            }
+            System.exit(1);
+        }
+        System.out.println("All benchmarks within the baseline");
+    }
+
+    private static Map<String, Double> run() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include("\\." + ScrollBenchmark.class.getSimpleName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        Map<String, Double> scores = new TreeMap<String, Double>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String key = benchmark.substring(benchmark.lastIndexOf('.') + 1) + "." + result.getParams().getParam("axis");
+            scores.put(key + ".time", result.getPrimaryResult().getScore());
+            // the secondary results are a map of raw Result, only their names are iterated
+            for (String secondary : result.getSecondaryResults().keySet()) {
+                if (secondary.endsWith("gc.alloc.rate.norm")) {
+                    scores.put(key + ".alloc", result.getSecondaryResults().get(secondary).getScore());
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static List<String> compare(Map<String, Double> scores, Properties baseline) {
+        double timeTolerance = Double.parseDouble(baseline.getProperty(TIME_TOLERANCE, DEFAULT_TIME_TOLERANCE));
+        double allocTolerance = Double.parseDouble(baseline.getProperty(ALLOC_TOLERANCE, DEFAULT_ALLOC_TOLERANCE));
+        List<String> regressions = new ArrayList<String>();
+        System.out.println(String.format(Locale.ROOT, "%-36s %12s %12s", "benchmark", "baseline", "score"));
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            String key = score.getKey();
+            String expected = baseline.getProperty(key);
+            if (expected == null) {
+                regressions.add(key + ": not in the baseline, record it with -Dbaseline.update=true");
+                continue;
+            }
+            double limit = key.endsWith(".time") ? Double.parseDouble(expected) * timeTolerance
+                    : Double.parseDouble(expected) + allocTolerance;
+            System.out.println(String.format(Locale.ROOT, "%-36s %12.1f %12.1f", key,
+                    Double.parseDouble(expected), score.getValue()));
+            if (score.getValue() > limit) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.1f, limit %.1f (baseline %s)",
+                        key, score.getValue(), limit, expected));
+            }
+        }
+        return regressions;
+    }
+
+    private static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return properties;
+    }
+
+    private static void write(File file, Map<String, Double> scores, String timeTolerance, String allocTolerance)
+            throws IOException {
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.ISO_8859_1);
+        try {
+            out.write("# Scores of ScrollBenchmark, checked by mvn test and rewritten by mvn test -Dbaseline.update=true\n");
+            out.write("# <benchmark>.<axis>.time: ns per operation, fails beyond tolerance.time times the baseline\n");
+            out.write("# <benchmark>.<axis>.alloc: bytes per operation, fails beyond tolerance.alloc bytes above it\n");
+            out.write("# the allocations come from EventDispatcher.dispatchEvent, see ScrollBenchmark\n");
+            out.write(TIME_TOLERANCE + "=" + timeTolerance + "\n");
+            out.write(ALLOC_TOLERANCE + "=" + allocTolerance + "\n");
+            for (Map.Entry<String, Double> score : scores.entrySet()) {
+                out.write(String.format(Locale.ROOT, "%s=%.1f\n", score.getKey(), score.getValue()));
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import java.util.List;
+
+import com.google.appinventor.components.runtime.AndroidViewComponent;
+import com.google.appinventor.components.runtime.EventDispatcher;
+import com.google.appinventor.components.runtime.Form;
+import com.google.appinventor.components.runtime.HorizontalScrollArrangement;
+import com.google.appinventor.components.runtime.Label;
+import com.google.appinventor.components.runtime.VerticalScrollArrangement;
+import com.google.appinventor.components.runtime.util.YailList;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.InputDevice;
+import android.view.MotionEvent;
+import android.widget.FrameLayout;
+
+/**
+ * A screen at density 2 holding one scroll arrangement of equally sized rows, registered on a handler.
+ * The vertical arrangement is 300 px high, the horizontal one 200 px wide, every row 50 px along the axis.
+ */
+final class ScrollFixture {
+
+    static final float DENSITY = 2f;
+    static final int ROW_SIZE = 50;
+
+    final boolean vertical;
+    final Form form;
+    final AndroidViewComponent arrangement;
+    final FrameLayout scrollView;
+    final Label[] rows;
+    final VerticalScrollHandler verticalHandler;
+    final HorizontalScrollHandler horizontalHandler;
+
+    private MotionEvent moveEvent;
+    private long downTime;
+
+    ScrollFixture(boolean vertical, int rowCount) {
+        EventDispatcher.reset();
+        this.vertical = vertical;
+        form = new Form();
+        form.setDeviceDensity(DENSITY);
+        if (vertical) {
+            VerticalScrollArrangement arrangement = new VerticalScrollArrangement(form);
+            arrangement.Width(AndroidViewComponent.LENGTH_FILL_PARENT);
+            arrangement.Height(300);
+            this.arrangement = arrangement;
+            rows = new Label[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = new Label(arrangement);
+                rows[i].Width(AndroidViewComponent.LENGTH_FILL_PARENT);
+                rows[i].Height(ROW_SIZE);
+            }
+            verticalHandler = new VerticalScrollHandler(form);
+            horizontalHandler = null;
+        } else {
+            HorizontalScrollArrangement arrangement = new HorizontalScrollArrangement(form);
+            arrangement.Width(200);
+            arrangement.Height(ROW_SIZE);
+            this.arrangement = arrangement;
+            rows = new Label[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = new Label(arrangement);
+                rows[i].Width(ROW_SIZE);
+                rows[i].Height(AndroidViewComponent.LENGTH_FILL_PARENT);
+            }
+            verticalHandler = null;
+            horizontalHandler = new HorizontalScrollHandler(form);
+        }
+        scrollView = (FrameLayout) arrangement.getView();
+        // laid out before the registration, like a screen that is already showing
+        frame();
+        register();
+    }
+
+    void unregister() {
+        if (vertical) {
+            verticalHandler.UnregisterScrollView((VerticalScrollArrangement) arrangement);
+        } else {
+            horizontalHandler.UnregisterScrollView((HorizontalScrollArrangement) arrangement);
+        }
+    }
+
+    void register() {
+        if (vertical) {
+            verticalHandler.RegisterScrollView((VerticalScrollArrangement) arrangement);
+        } else {
+            horizontalHandler.RegisterScrollView((HorizontalScrollArrangement) arrangement);
+        }
+    }
+
+    /**
+     * Register the arrangement on a second handler of the same axis as well
+     */
+    void registerOnAnotherHandler() {
+        if (vertical) {
+            new VerticalScrollHandler(form).RegisterScrollView((VerticalScrollArrangement) arrangement);
+        } else {
+            new HorizontalScrollHandler(form).RegisterScrollView((HorizontalScrollArrangement) arrangement);
+        }
+    }
+
+    /**
+     * Register one more arrangement of the same axis, it becomes the active one
+     */
+    AndroidViewComponent registerAnotherArrangement() {
+        if (vertical) {
+            VerticalScrollArrangement other = new VerticalScrollArrangement(form);
+            other.Height(300);
+            new Label(other).Height(ROW_SIZE);
+            frame();
+            verticalHandler.RegisterScrollView(other);
+            return other;
+        }
+        HorizontalScrollArrangement other = new HorizontalScrollArrangement(form);
+        other.Width(200);
+        new Label(other).Width(ROW_SIZE);
+        frame();
+        horizontalHandler.RegisterScrollView(other);
+        return other;
+    }
+
+    void close() {
+        form.onDestroy();
+        Choreographer.getInstance().runUntilIdle(1000);
+        EventDispatcher.reset();
+        Log.reset();
+    }
+
+    // frames and raw input, as the platform would deliver them
+
+    static void frame() {
+        Choreographer.getInstance().runFrame();
+    }
+
+    static void frames(int count) {
+        for (int i = 0; i < count; i++) {
+            frame();
+        }
+    }
+
+    static void settle() {
+        Choreographer.getInstance().runUntilIdle(2000);
+    }
+
+    /**
+     * Scroll the view itself to a position in dx, like the platform does while dragging or flinging
+     */
+    void scrollViewTo(int dx) {
+        if (vertical) {
+            scrollView.scrollTo(scrollView.getScrollX(), dx);
+        } else {
+            scrollView.scrollTo(dx, scrollView.getScrollY());
+        }
+    }
+
+    int viewScroll() {
+        return vertical ? scrollView.getScrollY() : scrollView.getScrollX();
+    }
+
+    boolean down(float position) {
+        downTime = SystemClock.uptimeMillis();
+        MotionEvent event = event(MotionEvent.ACTION_DOWN, position);
+        moveEvent = event(MotionEvent.ACTION_MOVE, position);
+        return scrollView.dispatchTouchEvent(event);
+    }
+
+    /**
+     * Reuses one event for every move of the gesture, so that only the dispatch is measured
+     */
+    boolean move(float position, long eventTime) {
+        moveEvent.setEventTime(eventTime);
+        if (vertical) {
+            moveEvent.setLocation(moveEvent.getX(), position);
+        } else {
+            moveEvent.setLocation(position, moveEvent.getY());
+        }
+        return scrollView.dispatchTouchEvent(moveEvent);
+    }
+
+    boolean up(float position) {
+        return scrollView.dispatchTouchEvent(event(MotionEvent.ACTION_UP, position));
+    }
+
+    /**
+     * A touch event of several pointers, positions in dx along the axis
+     * @param actionIndex index of the pointer going down or up with ACTION_POINTER_DOWN/UP
+     */
+    boolean touch(int action, int actionIndex, int[] pointerIds, float[] positions) {
+        MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[pointerIds.length];
+        MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[pointerIds.length];
+        for (int i = 0; i < pointerIds.length; i++) {
+            properties[i] = new MotionEvent.PointerProperties();
+            properties[i].id = pointerIds[i];
+            properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            coords[i] = new MotionEvent.PointerCoords();
+            coords[i].x = vertical ? 100f : positions[i];
+            coords[i].y = vertical ? positions[i] : 50f;
+        }
+        if (action == MotionEvent.ACTION_DOWN) {
+            downTime = SystemClock.uptimeMillis();
+        }
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                action | actionIndex << MotionEvent.ACTION_POINTER_INDEX_SHIFT, pointerIds.length,
+                properties, coords, 0, 0, 1f, 1f, 0, 0, InputDevice.SOURCE_TOUCHSCREEN, 0);
+        return scrollView.dispatchTouchEvent(event);
+    }
+
+    /**
+     * Drag from one position to another in dx, one move per frame, then release
+     */
+    void drag(float from, float to, int moves) {
+        down(from);
+        for (int i = 1; i <= moves; i++) {
+            frame();
+            move(from + (to - from) * i / moves, SystemClock.uptimeMillis());
+        }
+        up(to);
+    }
+
+    private MotionEvent event(int action, float position) {
+        float x = vertical ? 100f : position;
+        float y = vertical ? position : 50f;
+        return MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, x, y, 0);
+    }
+
+    // the handler, through its blocks API
+
+    void enabledEvents(String names) {
+        if (vertical) {
+            verticalHandler.EnabledEvents(names);
+        } else {
+            horizontalHandler.EnabledEvents(names);
+        }
+    }
+
+    void coalesceScrollEvents(boolean enable) {
+        if (vertical) {
+            verticalHandler.CoalesceScrollEvents(enable);
+        } else {
+            horizontalHandler.CoalesceScrollEvents(enable);
+        }
+    }
+
+    void minScrollEventDistance(int px) {
+        if (vertical) {
+            verticalHandler.MinScrollEventDistance(px);
+        } else {
+            horizontalHandler.MinScrollEventDistance(px);
+        }
+    }
+
+    void nearEndThreshold(int px) {
+        if (vertical) {
+            verticalHandler.NearEndThreshold(px);
+        } else {
+            horizontalHandler.NearEndThreshold(px);
+        }
+    }
+
+    void virtualization(boolean enable) {
+        if (vertical) {
+            verticalHandler.Virtualization(enable);
+        } else {
+            horizontalHandler.Virtualization(enable);
+        }
+    }
+
+    void scrollMetrics(boolean enable) {
+        if (vertical) {
+            verticalHandler.ScrollMetrics(enable);
+        } else {
+            horizontalHandler.ScrollMetrics(enable);
+        }
+    }
+
+    /**
+     * @return the value of one of the pairs of GetScrollMetrics
+     */
+    Object metric(String name) {
+        YailList metrics = vertical ? verticalHandler.GetScrollMetrics() : horizontalHandler.GetScrollMetrics();
+        for (int i = 0; i < metrics.size(); i++) {
+            List<?> pair = (List<?>) metrics.getObject(i);
+            if (name.equals(pair.get(0))) {
+                return pair.get(1);
+            }
+        }
+        throw new AssertionError("No scroll metric " + name);
+    }
+
+    int scrollPosition() {
+        return vertical ? verticalHandler.ScrollPosition() : horizontalHandler.ScrollPosition();
+    }
+
+    int scrollDelta() {
+        return vertical ? verticalHandler.ScrollDelta() : horizontalHandler.ScrollDelta();
+    }
+
+    int maxScrollPosition() {
+        return vertical ? verticalHandler.MaxScrollPosition() : horizontalHandler.MaxScrollPosition();
+    }
+
+    void scrollRenderOptimization(boolean enable) {
+        if (vertical) {
+            verticalHandler.ScrollRenderOptimization(enable);
+        } else {
+            horizontalHandler.ScrollRenderOptimization(enable);
+        }
+    }
+
+    void addScrollLayer(AndroidViewComponent component) {
+        if (vertical) {
+            verticalHandler.AddScrollLayer(component);
+        } else {
+            horizontalHandler.AddScrollLayer(component);
+        }
+    }
+
+    /**
+     * Recycle all the rows for a list of items 1 to size
+     */
+    void setRecyclingList(int size) {
+        Object[] items = new Object[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = i + 1;
+        }
+        YailList rowList = YailList.makeList(rows);
+        if (vertical) {
+            verticalHandler.SetRecyclingList(rowList, YailList.makeList(items));
+        } else {
+            horizontalHandler.SetRecyclingList(rowList, YailList.makeList(items));
+        }
+    }
+
+    void addThreshold(int px, String tag) {
+        if (vertical) {
+            verticalHandler.AddThreshold(px, tag);
+        } else {
+            horizontalHandler.AddThreshold(px, tag);
+        }
+    }
+
+    void scrollTo(int px) {
+        if (vertical) {
+            verticalHandler.ScrollTo(px);
+        } else {
+            horizontalHandler.ScrollTo(px);
+        }
+    }
+
+    void animateScrollTo(int px, int durationMs) {
+        if (vertical) {
+            verticalHandler.AnimateScrollTo(px, durationMs, ScrollEngine.EASING_OUT);
+        } else {
+            horizontalHandler.AnimateScrollTo(px, durationMs, ScrollEngine.EASING_OUT);
+        }
+    }
+
+    void startTraceRecording(String path) {
+        if (vertical) {
+            verticalHandler.StartTraceRecording(path);
+        } else {
+            horizontalHandler.StartTraceRecording(path);
+        }
+    }
+
+    void stopTraceRecording() {
+        if (vertical) {
+            verticalHandler.StopTraceRecording();
+        } else {
+            horizontalHandler.StopTraceRecording();
+        }
+    }
+
+    void replayTrace(String path) {
+        if (vertical) {
+            verticalHandler.ReplayTrace(path);
+        } else {
+            horizontalHandler.ReplayTrace(path);
+        }
+    }
+
+    AndroidViewComponent eventSource() {
+        return vertical ? verticalHandler.EventSource() : horizontalHandler.EventSource();
+    }
+
+    String overScrollStartEvent() {
+        return vertical ? "OverScrollDown" : "OverScrollRight";
+    }
+
+    String reachStartEvent() {
+        return vertical ? "ReachTop" : "ReachLeftEnd";
+    }
+
+    String reachEndEvent() {
+        return vertical ? "ReachBottom" : "ReachRightEnd";
+    }
+}
@@ -0,0 +1,420 @@
+package cn.colintree.aix.ScrollArrangementHandlers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.appinventor.components.runtime.AndroidViewComponent;
+import com.google.appinventor.components.runtime.Component;
+import com.google.appinventor.components.runtime.EventDispatcher;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.View;
+
+@RunWith(Parameterized.class)
+public class ScrollHandlerTest {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> axes() {
+        return Arrays.asList(new Object[][] {{"vertical"}, {"horizontal"}});
+    }
+
+    private final boolean vertical;
+    private ScrollFixture fixture;
+
+    public ScrollHandlerTest(String axis) {
+        vertical = axis.equals("vertical");
+    }
+
+    @Before
+    public void setUp() {
+        fixture = new ScrollFixture(vertical, 40);
+    }
+
+    @After
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    public void scrollChangedReportsThePositionInPx() {
+        fixture.scrollViewTo(300);
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        assertEquals(150, EventDispatcher.lastArgs("ScrollChanged")[0]);
+        assertEquals(150, fixture.scrollPosition());
+        // 40 rows of 50 px in a 300 px (vertical) or 200 px (horizontal) viewport
+        assertEquals(vertical ? 1700 : 1800, fixture.maxScrollPosition());
+    }
+
+    @Test
+    public void reachEventsAreEdgeTriggered() {
+        int max = fixture.maxScrollPosition();
+        fixture.scrollViewTo(Math.round(max * ScrollFixture.DENSITY));
+        fixture.scrollViewTo(Math.round(max * ScrollFixture.DENSITY) - 1);
+        fixture.scrollViewTo(Math.round(max * ScrollFixture.DENSITY));
+        assertEquals(1, EventDispatcher.count(fixture.reachEndEvent()));
+    }
+
+    @Test
+    public void reachStartIsRaisedWhenComingBack() {
+        fixture.scrollViewTo(400);
+        assertEquals(0, EventDispatcher.count(fixture.reachStartEvent()));
+        fixture.scrollViewTo(0);
+        assertEquals(1, EventDispatcher.count(fixture.reachStartEvent()));
+    }
+
+    @Test
+    public void coalescedScrollChangesRaiseOneEventPerFrame() {
+        fixture.coalesceScrollEvents(true);
+        fixture.scrollViewTo(100);
+        fixture.scrollViewTo(200);
+        fixture.scrollViewTo(300);
+        assertEquals(0, EventDispatcher.count("ScrollChanged"));
+        ScrollFixture.frame();
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        assertEquals(150, EventDispatcher.lastArgs("ScrollChanged")[0]);
+        ScrollFixture.frame();
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+    }
+
+    @Test
+    public void minScrollEventDistanceSkipsSmallChanges() {
+        fixture.coalesceScrollEvents(true);
+        fixture.minScrollEventDistance(50);
+        fixture.scrollViewTo(200);
+        ScrollFixture.frame();
+        fixture.scrollViewTo(240);
+        ScrollFixture.frame();
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        assertEquals(100, EventDispatcher.lastArgs("ScrollChanged")[0]);
+        fixture.scrollViewTo(320);
+        ScrollFixture.frame();
+        assertEquals(2, EventDispatcher.count("ScrollChanged"));
+        assertEquals(160, EventDispatcher.lastArgs("ScrollChanged")[0]);
+    }
+
+    @Test
+    public void layoutPassesWithoutMovingDoNotRaiseVisibleRangeChanged() {
+        fixture.scrollViewTo(250);
+        int raised = EventDispatcher.count("VisibleRangeChanged");
+        assertTrue(raised > 0);
+        fixture.scrollView.requestLayout();
+        ScrollFixture.frame();
+        fixture.scrollViewTo(251);
+        assertEquals(raised, EventDispatcher.count("VisibleRangeChanged"));
+    }
+
+    @Test
+    public void positionWithinMinScrollEventDistanceIsReportedOnceIdle() {
+        fixture.coalesceScrollEvents(true);
+        fixture.minScrollEventDistance(50);
+        fixture.scrollViewTo(200);
+        ScrollFixture.frame();
+        fixture.scrollViewTo(260);
+        ScrollFixture.frame();
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        ScrollFixture.settle();
+        assertEquals(2, EventDispatcher.count("ScrollChanged"));
+        assertEquals(130, EventDispatcher.lastArgs("ScrollChanged")[0]);
+        assertEquals(0, EventDispatcher.lastArgs("ScrollStateChanged")[0]);
+    }
+
+    @Test
+    public void positionWithinMinScrollEventDistanceIsReportedOnPause() {
+        fixture.coalesceScrollEvents(true);
+        fixture.minScrollEventDistance(50);
+        fixture.scrollViewTo(200);
+        ScrollFixture.frame();
+        fixture.scrollViewTo(260);
+        fixture.form.onPause();
+        assertEquals(2, EventDispatcher.count("ScrollChanged"));
+        assertEquals(130, EventDispatcher.lastArgs("ScrollChanged")[0]);
+        fixture.form.onResume();
+        ScrollFixture.settle();
+        assertEquals(2, EventDispatcher.count("ScrollChanged"));
+    }
+
+    @Test
+    public void thresholdsAreCrossedInBothDirections() {
+        fixture.addThreshold(200, "middle");
+        fixture.scrollViewTo(300);
+        assertEquals(0, EventDispatcher.count("ThresholdCrossed"));
+        fixture.scrollViewTo(500);
+        assertEquals(1, EventDispatcher.count("ThresholdCrossed"));
+        assertArrayEquals(new Object[] {"middle", 1}, EventDispatcher.lastArgs("ThresholdCrossed"));
+        fixture.scrollViewTo(100);
+        assertEquals(2, EventDispatcher.count("ThresholdCrossed"));
+        assertArrayEquals(new Object[] {"middle", -1}, EventDispatcher.lastArgs("ThresholdCrossed"));
+    }
+
+    @Test
+    public void unregisteringLeavesTheListenersOfAnotherHandlerInPlace() {
+        fixture.registerOnAnotherHandler();
+        fixture.unregister();
+        fixture.scrollViewTo(300);
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+    }
+
+    @Test
+    public void arrangementRegisteredWhileScrolledStartsFromItsPosition() {
+        fixture.unregister();
+        fixture.scrollViewTo(1000);
+        fixture.register();
+        for (int i = 1; i <= 4; i++) {
+            fixture.addThreshold(100 * i, "t" + i);
+        }
+        fixture.scrollViewTo(1010);
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        assertEquals(505, EventDispatcher.lastArgs("ScrollChanged")[0]);
+        assertEquals(5, fixture.scrollDelta());
+        assertEquals(0, EventDispatcher.count("ThresholdCrossed"));
+    }
+
+    @Test
+    public void nearEndIsRaisedOnceWithinTheThreshold() {
+        fixture.nearEndThreshold(300);
+        int max = fixture.maxScrollPosition();
+        fixture.scrollViewTo(Math.round((max - 400) * ScrollFixture.DENSITY));
+        assertEquals(0, EventDispatcher.count("NearEnd"));
+        fixture.scrollViewTo(Math.round((max - 250) * ScrollFixture.DENSITY));
+        assertEquals(1, EventDispatcher.count("NearEnd"));
+        assertEquals(250, EventDispatcher.lastArgs("NearEnd")[0]);
+        fixture.scrollViewTo(Math.round((max - 200) * ScrollFixture.DENSITY));
+        assertEquals(1, EventDispatcher.count("NearEnd"));
+    }
+
+    @Test
+    public void virtualizationHidesFarChildrenAndKeepsTheirSpace() {
+        int max = fixture.maxScrollPosition();
+        fixture.virtualization(true);
+        ScrollFixture.frame();
+        assertEquals(View.VISIBLE, fixture.rows[0].getView().getVisibility());
+        assertEquals(View.GONE, fixture.rows[39].getView().getVisibility());
+        assertEquals(max, fixture.maxScrollPosition());
+
+        fixture.scrollViewTo(Math.round(max * ScrollFixture.DENSITY));
+        ScrollFixture.frame();
+        assertEquals(View.GONE, fixture.rows[0].getView().getVisibility());
+        assertEquals(View.VISIBLE, fixture.rows[39].getView().getVisibility());
+        assertEquals(max, fixture.maxScrollPosition());
+
+        fixture.virtualization(false);
+        ScrollFixture.frame();
+        assertEquals(View.VISIBLE, fixture.rows[0].getView().getVisibility());
+        assertEquals(max, fixture.maxScrollPosition());
+    }
+
+    @Test
+    public void recyclingListSetRightAfterRegisteringSpansTheWholeList() {
+        fixture.close();
+        fixture = new ScrollFixture(vertical, 10);
+        fixture.setRecyclingList(1000);
+        ScrollFixture.frame();
+        // 1000 items of 50 px
+        assertEquals(vertical ? 49700 : 49800, fixture.maxScrollPosition());
+        final int[] lastBound = new int[1];
+        EventDispatcher.setBlock(new EventDispatcher.Block() {
+            @Override
+            public void run(Component component, String eventName, Object[] args) {
+                if (eventName.equals("BindRow")) {
+                    lastBound[0] = Math.max(lastBound[0], (Integer) args[1]);
+                }
+            }
+        });
+        fixture.scrollViewTo(20000);
+        ScrollFixture.frame();
+        assertEquals(20000, fixture.viewScroll());
+        assertEquals(10000, fixture.scrollPosition());
+        // the pool has moved to the items around item 201, the first one in the viewport
+        assertTrue(lastBound[0] > 201);
+        assertTrue(lastBound[0] <= 201 + 10);
+        // the padding of the list is not the one of virtualization
+        fixture.virtualization(false);
+        ScrollFixture.frame();
+        assertEquals(vertical ? 49700 : 49800, fixture.maxScrollPosition());
+    }
+
+    @Test
+    public void onlyTheEnabledEventsAreRaised() {
+        fixture.enabledEvents("ScrollChanged, ThresholdCrossed");
+        fixture.addThreshold(100, "a");
+        fixture.scrollViewTo(300);
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        assertEquals(1, EventDispatcher.count("ThresholdCrossed"));
+        assertEquals(0, EventDispatcher.count("VisibleRangeChanged"));
+        fixture.scrollViewTo(Math.round(fixture.maxScrollPosition() * ScrollFixture.DENSITY));
+        assertEquals(0, EventDispatcher.count(fixture.reachEndEvent()));
+
+        fixture.enabledEvents("");
+        fixture.scrollViewTo(0);
+        assertEquals(0, EventDispatcher.count(fixture.reachStartEvent()));
+        assertEquals(3, EventDispatcher.total());
+        fixture.drag(600, 400, 4);
+        ScrollFixture.settle();
+        assertEquals(3, EventDispatcher.total());
+    }
+
+    @Test
+    public void misspelledEventNamesAreLogged() {
+        fixture.enabledEvents("ScrolChanged, ThresholdCrossed, *");
+        assertEquals(Arrays.asList("EnabledEvents: unknown event ScrolChanged"), Log.warnings());
+        fixture.enabledEvents("");
+        assertEquals(1, Log.warnings().size());
+    }
+
+    @Test
+    public void reenabledEventsStartFromTheCurrentPosition() {
+        fixture.addThreshold(200, "a");
+        fixture.enabledEvents("");
+        fixture.scrollViewTo(1000);
+        fixture.enabledEvents("*");
+        fixture.scrollViewTo(1010);
+        assertEquals(1, EventDispatcher.count("ScrollChanged"));
+        assertEquals(5, fixture.scrollDelta());
+        assertEquals(0, EventDispatcher.count("ThresholdCrossed"));
+    }
+
+    @Test
+    public void scrollLayersAreDrawnFromHardwareLayersOnlyWhileScrolling() {
+        fixture.scrollRenderOptimization(true);
+        fixture.addScrollLayer(fixture.rows[1]);
+        fixture.down(600);
+        ScrollFixture.frame();
+        fixture.move(500, SystemClock.uptimeMillis());
+        assertEquals(View.LAYER_TYPE_HARDWARE, fixture.rows[1].getView().getLayerType());
+        assertEquals(View.LAYER_TYPE_NONE, fixture.rows[2].getView().getLayerType());
+        fixture.up(500);
+        ScrollFixture.settle();
+        assertEquals(View.LAYER_TYPE_NONE, fixture.rows[1].getView().getLayerType());
+    }
+
+    @Test
+    public void onlyTheChildrenAroundTheViewportAreDrawnFromHardwareLayers() {
+        fixture.scrollRenderOptimization(true);
+        fixture.down(600);
+        ScrollFixture.frame();
+        fixture.move(500, SystemClock.uptimeMillis());
+        assertEquals(View.LAYER_TYPE_HARDWARE, fixture.rows[0].getView().getLayerType());
+        assertEquals(View.LAYER_TYPE_NONE, fixture.rows[39].getView().getLayerType());
+        assertEquals(View.LAYER_TYPE_NONE, ((View) fixture.rows[0].getView().getParent()).getLayerType());
+        fixture.up(500);
+        ScrollFixture.settle();
+        assertEquals(View.LAYER_TYPE_NONE, fixture.rows[0].getView().getLayerType());
+    }
+
+    @Test
+    public void animationIsNotUndoneByTheFlingItInterrupts() {
+        fixture.drag(600, 200, 4);
+        ScrollFixture.frames(2);
+        fixture.animateScrollTo(100, 200);
+        ScrollFixture.settle();
+        assertEquals(100, fixture.scrollPosition());
+        assertEquals(1, EventDispatcher.count("AnimationFinished"));
+        assertEquals(true, EventDispatcher.lastArgs("AnimationFinished")[0]);
+    }
+
+    @Test
+    public void replayedDragScrollsLikeTheRecordedOneAndRaisesReplayFinishedOnTheArrangement() {
+        fixture.startTraceRecording("drag.trace");
+        fixture.drag(600, 200, 8);
+        ScrollFixture.settle();
+        fixture.stopTraceRecording();
+        int recorded = fixture.scrollPosition();
+        assertTrue(recorded > 0);
+
+        fixture.scrollTo(0);
+        EventDispatcher.reset();
+        final AndroidViewComponent[] source = new AndroidViewComponent[1];
+        EventDispatcher.setBlock(new EventDispatcher.Block() {
+            @Override
+            public void run(Component component, String eventName, Object[] args) {
+                if (eventName.equals("ReplayFinished")) {
+                    source[0] = fixture.eventSource();
+                }
+            }
+        });
+        fixture.replayTrace("drag.trace");
+        // the replay keeps raising its events on the arrangement it started on
+        fixture.registerAnotherArrangement();
+        ScrollFixture.settle();
+        assertEquals(1, EventDispatcher.count("TouchDown"));
+        assertEquals(1, EventDispatcher.count("TouchUp"));
+        assertEquals(1, EventDispatcher.count("ReplayFinished"));
+        assertEquals(recorded, EventDispatcher.lastArgs("ReplayFinished")[0]);
+        assertSame(fixture.arrangement, source[0]);
+        assertTrue(fixture.viewScroll() > 0);
+    }
+
+    @Test
+    public void pullGoesOnWithTheOtherPointerWhenTheFirstIsLifted() {
+        fixture.touch(MotionEvent.ACTION_DOWN, 0, new int[] {0}, new float[] {100});
+        fixture.touch(MotionEvent.ACTION_POINTER_DOWN, 1, new int[] {0, 1}, new float[] {100, 300});
+        fixture.touch(MotionEvent.ACTION_MOVE, 0, new int[] {0, 1}, new float[] {120, 320});
+        assertEquals(10f, EventDispatcher.lastArgs(fixture.overScrollStartEvent())[0]);
+        fixture.touch(MotionEvent.ACTION_POINTER_UP, 0, new int[] {0, 1}, new float[] {120, 320});
+        fixture.touch(MotionEvent.ACTION_MOVE, 0, new int[] {1}, new float[] {340});
+        assertEquals(20f, EventDispatcher.lastArgs(fixture.overScrollStartEvent())[0]);
+
+        // a pointer lost without ACTION_POINTER_UP, e.g. taken by a child
+        fixture.touch(MotionEvent.ACTION_POINTER_DOWN, 1, new int[] {1, 2}, new float[] {340, 500});
+        fixture.touch(MotionEvent.ACTION_MOVE, 0, new int[] {2}, new float[] {520});
+        assertEquals(20f, EventDispatcher.lastArgs(fixture.overScrollStartEvent())[0]);
+        fixture.touch(MotionEvent.ACTION_MOVE, 0, new int[] {2}, new float[] {540});
+        assertEquals(30f, EventDispatcher.lastArgs(fixture.overScrollStartEvent())[0]);
+        fixture.touch(MotionEvent.ACTION_UP, 0, new int[] {2}, new float[] {540});
+        assertEquals(1, EventDispatcher.count("TouchUp"));
+    }
+
+    @Test
+    public void dragScrollsAndSettlesToIdle() {
+        fixture.drag(600, 400, 10);
+        assertEquals(1, EventDispatcher.count("TouchDown"));
+        assertEquals(1, EventDispatcher.count("TouchUp"));
+        ScrollFixture.settle();
+        assertTrue(fixture.scrollPosition() > 0);
+        assertEquals(0, EventDispatcher.lastArgs("ScrollStateChanged")[0]);
+    }
+
+    @Test
+    public void scrollCallbackTimeLeavesOutEveryEventBlock() {
+        fixture.scrollMetrics(true);
+        for (int i = 0; i < 20; i++) {
+            fixture.addThreshold(25 * i, "t" + i);
+        }
+        EventDispatcher.setBlock(new EventDispatcher.Block() {
+            @Override
+            public void run(Component component, String eventName, Object[] args) {
+                if (!eventName.equals("ScrollChanged")) {
+                    spin(20000000L);
+                }
+            }
+        });
+        for (int i = 1; i <= 40; i++) {
+            fixture.scrollViewTo(i * 25);
+        }
+        assertTrue(EventDispatcher.count("ThresholdCrossed") > 0);
+        assertTrue(EventDispatcher.count("VisibleRangeChanged") > 0);
+        // a single block left in would take 20 ms, the rest is slack for JIT and GC pauses
+        assertTrue((Float) fixture.metric("ScrollCallbackTimeMax") < 20f);
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            // busy, like a slow block
+        }
+    }
+}